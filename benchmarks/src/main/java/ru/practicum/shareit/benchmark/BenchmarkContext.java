@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmark;
+
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Минимальные контексты для бенчмарков: сгенерированные MapStruct-мапперы
+ * и сервисы, у которых все зависимости, кроме мапперов, заменены заглушками.
+ */
+final class BenchmarkContext {
+    private static final String[] MAPPER_PACKAGES = {
+            "ru.practicum.shareit.booking.mapper",
+            "ru.practicum.shareit.item.mapper",
+            "ru.practicum.shareit.request.mapper",
+            "ru.practicum.shareit.user.mapper"
+    };
+
+    private BenchmarkContext() {
+    }
+
+    static AnnotationConfigApplicationContext mappers() {
+        return new AnnotationConfigApplicationContext(MAPPER_PACKAGES);
+    }
+
+    /**
+     * Контекст с сервисом {@code serviceClass}; каждая зависимость из {@code stubs}
+     * регистрируется как заглушка без записи вызовов и должна быть настроена до вызова {@code refresh}.
+     */
+    static AnnotationConfigApplicationContext service(Class<?> serviceClass, Object... stubs) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.scan(MAPPER_PACKAGES);
+        for (Object stub : stubs) {
+            registerStub(context, stub);
+        }
+        context.register(serviceClass);
+        context.refresh();
+        return context;
+    }
+
+    static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void registerStub(AnnotationConfigApplicationContext context, T stub) {
+        Class<T> type = (Class<T>) Mockito.mockingDetails(stub).getMockCreationSettings().getTypeToMock();
+        context.registerBean(type, () -> stub);
+    }
+}
@@ -0,0 +1,303 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemWithBookingsView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestView;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Детерминированные наборы сущностей для бенчмарков: длина строк и соотношение
+ * вещей, комментариев и бронирований близки к данным postman-коллекции.
+ */
+final class BenchmarkData {
+    static final Long OWNER_ID = 1L;
+    static final int COMMENTS_PER_ITEM = 5;
+    static final int ITEMS_PER_REQUEST = 3;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Пользователь " + id);
+        user.setEmail("user" + id + "@mail.ru");
+        return user;
+    }
+
+    static List<Item> items(int size) {
+        User owner = user(OWNER_ID);
+        List<Item> items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("Дрель " + id)
+                    .description("Аккумуляторная дрель с набором бит, модель " + id)
+                    .available(id % 5 != 0)
+                    .user(owner)
+                    .build());
+        }
+        return items;
+    }
+
+    static List<Comment> comments(List<Item> items) {
+        List<Comment> comments = new ArrayList<>(items.size() * COMMENTS_PER_ITEM);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++, id++) {
+                comments.add(new Comment(id, "Отличная вещь, все работает " + id, item, user(id % 50 + 2),
+                        NOW.minusHours(id)));
+            }
+        }
+        return comments;
+    }
+
+    static List<Booking> bookings(List<Item> items) {
+        List<Booking> bookings = new ArrayList<>(items.size());
+        long id = 1;
+        for (Item item : items) {
+            bookings.add(new Booking(id, NOW.minusDays(id % 30), NOW.minusDays(id % 30).plusDays(2), item,
+                    item.getUser(), user(id % 50 + 2), StatusBooking.APPROVED));
+            id++;
+        }
+        return bookings;
+    }
+
+    /**
+     * Вещи владельца с последней и следующей бронью из сводки, как их отдает join с {@code item_booking_summary}.
+     */
+    static List<ItemWithBookingsView> itemsWithBookings(List<Item> items) {
+        List<ItemWithBookingsView> views = new ArrayList<>(items.size());
+        long id = 1;
+        for (Item item : items) {
+            views.add(new ItemWithBookingsRow(item, id));
+            id += 2;
+        }
+        return views;
+    }
+
+    static List<Request> requests(int size) {
+        List<Request> requests = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            requests.add(new Request(id, "Нужна дрель на выходные " + id, user(id % 50 + 2), NOW.minusHours(id)));
+        }
+        return requests;
+    }
+
+    static List<Item> itemsForRequests(List<Request> requests) {
+        List<Item> items = new ArrayList<>(requests.size() * ITEMS_PER_REQUEST);
+        long id = 1;
+        for (Request request : requests) {
+            for (int i = 0; i < ITEMS_PER_REQUEST; i++, id++) {
+                items.add(Item.builder()
+                        .id(id)
+                        .name("Дрель " + id)
+                        .description("Ответ на запрос " + request.getId())
+                        .available(true)
+                        .user(user(OWNER_ID))
+                        .request(request)
+                        .build());
+            }
+        }
+        return items;
+    }
+
+    static List<ItemView> itemViews(List<Item> items) {
+        return items.stream().map(ItemRow::new).collect(Collectors.toList());
+    }
+
+    static List<CommentView> commentViews(List<Comment> comments) {
+        return comments.stream().map(CommentRow::new).collect(Collectors.toList());
+    }
+
+    static List<RequestView> requestViews(List<Request> requests) {
+        return requests.stream().map(RequestRow::new).collect(Collectors.toList());
+    }
+
+    private static final class ItemWithBookingsRow implements ItemWithBookingsView {
+        private final Item item;
+        private final Long lastBookingId;
+
+        private ItemWithBookingsRow(Item item, Long lastBookingId) {
+            this.item = item;
+            this.lastBookingId = lastBookingId;
+        }
+
+        @Override
+        public Long getId() {
+            return item.getId();
+        }
+
+        @Override
+        public String getName() {
+            return item.getName();
+        }
+
+        @Override
+        public String getDescription() {
+            return item.getDescription();
+        }
+
+        @Override
+        public Boolean getAvailable() {
+            return item.getAvailable();
+        }
+
+        @Override
+        public Long getRequestId() {
+            return null;
+        }
+
+        @Override
+        public Long getLastBookingId() {
+            return lastBookingId;
+        }
+
+        @Override
+        public LocalDateTime getLastStart() {
+            return NOW.minusDays(2);
+        }
+
+        @Override
+        public LocalDateTime getLastEnd() {
+            return NOW.minusDays(1);
+        }
+
+        @Override
+        public StatusBooking getLastStatus() {
+            return StatusBooking.APPROVED;
+        }
+
+        @Override
+        public Long getLastBookerId() {
+            return lastBookingId % 50 + 2;
+        }
+
+        @Override
+        public Long getNextBookingId() {
+            return lastBookingId + 1;
+        }
+
+        @Override
+        public LocalDateTime getNextStart() {
+            return NOW.plusDays(1);
+        }
+
+        @Override
+        public LocalDateTime getNextEnd() {
+            return NOW.plusDays(2);
+        }
+
+        @Override
+        public StatusBooking getNextStatus() {
+            return StatusBooking.APPROVED;
+        }
+
+        @Override
+        public Long getNextBookerId() {
+            return (lastBookingId + 1) % 50 + 2;
+        }
+    }
+
+    private static final class ItemRow implements ItemView {
+        private final Item item;
+
+        private ItemRow(Item item) {
+            this.item = item;
+        }
+
+        @Override
+        public Long getId() {
+            return item.getId();
+        }
+
+        @Override
+        public String getName() {
+            return item.getName();
+        }
+
+        @Override
+        public String getDescription() {
+            return item.getDescription();
+        }
+
+        @Override
+        public Boolean getAvailable() {
+            return item.getAvailable();
+        }
+
+        @Override
+        public Long getRequestId() {
+            return item.getRequest() == null ? null : item.getRequest().getId();
+        }
+    }
+
+    private static final class CommentRow implements CommentView {
+        private final Comment comment;
+
+        private CommentRow(Comment comment) {
+            this.comment = comment;
+        }
+
+        @Override
+        public Long getId() {
+            return comment.getId();
+        }
+
+        @Override
+        public Long getItemId() {
+            return comment.getItem().getId();
+        }
+
+        @Override
+        public String getText() {
+            return comment.getText();
+        }
+
+        @Override
+        public String getAuthorName() {
+            return comment.getAuthor().getName();
+        }
+
+        @Override
+        public LocalDateTime getCreated() {
+            return comment.getCreated();
+        }
+    }
+
+    private static final class RequestRow implements RequestView {
+        private final Request request;
+
+        private RequestRow(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public Long getId() {
+            return request.getId();
+        }
+
+        @Override
+        public String getDescription() {
+            return request.getDescription();
+        }
+
+        @Override
+        public LocalDateTime getCreated() {
+            return request.getCreated();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка {@code size} пользователей в одной транзакции через Hibernate на H2 в памяти.
+ * {@code identity} — схема до V8 и {@code GenerationType.IDENTITY}: Hibernate не может
+ * группировать такие вставки и выполняет их по одной. {@code sequence} — текущая схема
+ * с pooled-последовательностью и пакетами JDBC. Настройки Hibernate в обоих режимах одинаковые,
+ * поэтому разница — только в стратегии id. Сетевых задержек у H2 в памяти нет, на PostgreSQL
+ * выигрыш от меньшего числа обращений к базе будет больше.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final String IDENTITY = "identity";
+    /** Последняя миграция для H2, после которой id пользователей еще выдает identity-столбец. */
+    private static final MigrationVersion LAST_IDENTITY_VERSION = MigrationVersion.fromVersion("6");
+
+    @Param({IDENTITY, "sequence"})
+    private String ids;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        boolean identity = IDENTITY.equals(ids);
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:bulk-insert-" + ids + ";DB_CLOSE_DELAY=-1");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .target(identity ? LAST_IDENTITY_VERSION : MigrationVersion.LATEST)
+                .load()
+                .migrate();
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("ru.practicum.shareit.user.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        if (identity) {
+            factory.setMappingResources("benchmark/identity-ids.xml");
+        }
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.jdbc.batch_size", "50",
+                "hibernate.order_inserts", "true"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+    }
+
+    @Setup(Level.Iteration)
+    public void clear() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("delete from users");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public long persistUsers() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            User user = null;
+            for (int i = 0; i < size; i++) {
+                user = new User();
+                user.setName("Пользователь");
+                user.setEmail("user" + sequence++ + "@mail.com");
+                entityManager.persist(user);
+            }
+            entityManager.getTransaction().commit();
+            return user.getId();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.request.service.RequestServiceImpl;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Сборка ответов из уже загруженных данных: группировка комментариев и бронирований
+ * по вещам в {@link ItemServiceImpl#getItemsByOwner} и вещей по запросам в
+ * {@link RequestServiceImpl#getAllRequests}. Репозитории отдают готовые списки,
+ * поэтому измеряется только работа сервисов и мапперов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceGroupingBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private AnnotationConfigApplicationContext itemContext;
+    private AnnotationConfigApplicationContext requestContext;
+    private ItemService itemService;
+    private RequestService requestService;
+
+    @Setup
+    public void setUp() {
+        List<Item> items = BenchmarkData.items(size);
+        ItemRepository itemRepository = BenchmarkContext.stub(ItemRepository.class);
+        CommentRepository commentRepository = BenchmarkContext.stub(CommentRepository.class);
+        BookingRepository bookingRepository = BenchmarkContext.stub(BookingRepository.class);
+        when(itemRepository.findViewsWithBookingsByUserId(BenchmarkData.OWNER_ID))
+                .thenReturn(BenchmarkData.itemsWithBookings(items));
+        when(commentRepository.findViewsByItemIdIn(anyList()))
+                .thenReturn(BenchmarkData.commentViews(BenchmarkData.comments(items)));
+        itemContext = BenchmarkContext.service(ItemServiceImpl.class,
+                itemRepository, commentRepository, bookingRepository,
+                BenchmarkContext.stub(UserRepository.class),
+                BenchmarkContext.stub(UserGuard.class),
+                BenchmarkContext.stub(RequestRepository.class),
+                BenchmarkContext.stub(ItemSearchIndex.class),
+                BenchmarkContext.stub(BookingAvailability.class),
+                BenchmarkContext.stub(ItemBookingSummaryUpdater.class),
+                BenchmarkContext.stub(CacheInvalidations.class));
+        itemService = itemContext.getBean(ItemService.class);
+
+        List<Request> requests = BenchmarkData.requests(size);
+        RequestRepository requestRepository = BenchmarkContext.stub(RequestRepository.class);
+        ItemRepository requestItemRepository = BenchmarkContext.stub(ItemRepository.class);
+        when(requestRepository.findViewsByRequesterIdIsNot(anyLong(), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(BenchmarkData.requestViews(requests)));
+        when(requestItemRepository.findViewsByRequestIdIn(anyList()))
+                .thenReturn(BenchmarkData.itemViews(BenchmarkData.itemsForRequests(requests)));
+        requestContext = BenchmarkContext.service(RequestServiceImpl.class,
+                requestRepository, requestItemRepository,
+                BenchmarkContext.stub(UserRepository.class),
+                BenchmarkContext.stub(UserGuard.class));
+        requestService = requestContext.getBean(RequestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        itemContext.close();
+        requestContext.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsByOwner() {
+        return itemService.getItemsByOwner(BenchmarkData.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<RequestDto> allRequests() {
+        return requestService.getAllRequests(BenchmarkData.OWNER_ID, 0, size);
+    }
+}
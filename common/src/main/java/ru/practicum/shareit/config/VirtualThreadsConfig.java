@@ -0,0 +1,44 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Профиль {@code virtual-threads} сервера и шлюза: запросы Tomcat обрабатываются на виртуальных потоках.
+ * В шлюзе в режиме {@code shareit-server.proxy-mode=blocking} вызов сервера выполняется в потоке запроса,
+ * поэтому тоже уходит на виртуальный поток. Виртуальные потоки появились в Java 21, а проект собирается
+ * под Java 11, поэтому фабрика ищется через reflection; на более ранних версиях остается пул
+ * платформенных потоков.
+ */
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        Optional<ExecutorService> executor = virtualThreadPerTaskExecutor();
+        return protocolHandler -> executor.ifPresent(protocolHandler::setExecutor);
+    }
+
+    private static Optional<ExecutorService> virtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            log.info("Запросы обрабатываются на виртуальных потоках");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            log.warn("Виртуальные потоки недоступны в Java {}, используется пул платформенных потоков",
+                    Runtime.version().feature());
+            return Optional.empty();
+        }
+    }
+}
@@ -1,36 +1,41 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
+
+import java.time.LocalDateTime;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> create(long userId, BookingDtoReqCreate dto) {
+    public Mono<ResponseEntity<Object>> create(long userId, BookingDtoReqCreate dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> setApprove(long ownerId, long id, String approved) {
+    public Mono<ResponseEntity<Object>> createBatch(long userId, BookingBatchCreateDto dto) {
+        return post("/batch", userId, dto);
+    }
+
+    public Mono<ResponseEntity<Object>> decideBatch(long ownerId, BookingBatchDecisionDto dto) {
+        return patch("/batch", ownerId, dto);
+    }
+
+    public Mono<ResponseEntity<Object>> setApprove(long ownerId, long id, String approved) {
         UriComponents builder = UriComponentsBuilder.newInstance()
                 .path("/" + id)
                 .query("approved={approved}")
@@ -38,22 +43,29 @@ public class BookingClient extends BaseClient {
         return patch(builder.toUriString(), ownerId, null);
     }
 
-    public ResponseEntity<Object> getById(long userId, long id) {
+    public Mono<ResponseEntity<Object>> getById(long userId, long id) {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> getAllForUserByState(long userId, String state, Integer from, Integer size) {
-        UriComponents builder = UriComponentsBuilder.newInstance()
-                .query("state={state}&from={from}&size={size}")
-                .buildAndExpand(state, from, size);
+    public Mono<ResponseEntity<Object>> getAllForUserByState(long userId, String state, Integer from, Integer size,
+                                                       LocalDateTime afterStart, Long afterId) {
+        UriComponents builder = listQuery(UriComponentsBuilder.newInstance(), afterStart, afterId)
+                .buildAndExpand(state, from, size, afterStart, afterId);
         return get(builder.toUriString(), userId);
     }
 
-    public ResponseEntity<Object> getAllForOwnerByState(long userId, String state, Integer from, Integer size) {
-        UriComponents builder = UriComponentsBuilder.newInstance()
-                .path("/owner")
-                .query("state={state}&from={from}&size={size}")
-                .buildAndExpand(state, from, size);
+    public Mono<ResponseEntity<Object>> getAllForOwnerByState(long userId, String state, Integer from, Integer size,
+                                                        LocalDateTime afterStart, Long afterId) {
+        UriComponents builder = listQuery(UriComponentsBuilder.newInstance().path("/owner"), afterStart, afterId)
+                .buildAndExpand(state, from, size, afterStart, afterId);
         return get(builder.toUriString(), userId);
     }
+
+    private UriComponentsBuilder listQuery(UriComponentsBuilder builder, LocalDateTime afterStart, Long afterId) {
+        builder.query("state={state}&from={from}&size={size}");
+        if (afterStart != null && afterId != null) {
+            builder.query("afterStart={afterStart}&afterId={afterId}");
+        }
+        return builder;
+    }
 }
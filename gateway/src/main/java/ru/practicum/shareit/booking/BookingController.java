@@ -2,16 +2,21 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 
 @Controller
 @Validated
@@ -24,37 +29,63 @@ public class BookingController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
                                       @Valid @RequestBody BookingDtoReqCreate bookingDto) {
         return bookingClient.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @Valid @RequestBody BookingBatchCreateDto batchDto) {
+        return bookingClient.createBatch(userId, batchDto);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> patchBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @Valid @RequestBody BookingBatchDecisionDto batchDto) {
+        return bookingClient.decideBatch(userId, batchDto);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> patchBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> patchBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                    @PathVariable Long bookingId,
                                    @RequestParam String approved) {
         return bookingClient.setApprove(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable Long bookingId) {
         return bookingClient.getById(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
-                                        @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
-        return bookingClient.getAllForUserByState(userId, state, from, size);
+                                        @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                        @RequestParam(required = false) Long afterId) {
+        validateCursor(afterStart, afterId);
+        return bookingClient.getAllForUserByState(userId, state, from, size, afterStart, afterId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getBookingsOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @RequestParam(defaultValue = "ALL") String state,
                                              @RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
-                                             @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
-        return bookingClient.getAllForOwnerByState(userId, state, from, size);
+                                             @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                             @RequestParam(required = false) Long afterId) {
+        validateCursor(afterStart, afterId);
+        return bookingClient.getAllForOwnerByState(userId, state, from, size, afterStart, afterId);
+    }
+
+    private void validateCursor(LocalDateTime afterStart, Long afterId) {
+        if ((afterStart == null) != (afterId == null)) {
+            throw new IllegalArgumentException("Курсор задается парой параметров afterStart и afterId");
+        }
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@RequiredArgsConstructor
+@AllArgsConstructor
+public class BookingBatchCreateDto {
+    @NotEmpty(message = "Пакет бронирований не может быть пустым")
+    @Size(max = 500, message = "В пакете не может быть больше 500 бронирований")
+    @Valid
+    private List<BookingDtoReqCreate> bookings;
+}
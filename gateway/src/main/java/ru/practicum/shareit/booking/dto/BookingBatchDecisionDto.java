@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@RequiredArgsConstructor
+@AllArgsConstructor
+public class BookingBatchDecisionDto {
+    @NotEmpty(message = "Пакет решений не может быть пустым")
+    @Size(max = 500, message = "В пакете не может быть больше 500 решений")
+    @Valid
+    private List<BookingDecisionDto> decisions;
+}
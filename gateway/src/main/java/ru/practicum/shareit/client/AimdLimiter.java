@@ -0,0 +1,157 @@
+package ru.practicum.shareit.client;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Адаптивный лимит одновременных запросов (AIMD): после каждого быстрого успешного ответа лимит
+ * растет на {@code 1/limit}, то есть примерно на единицу за «окно» запросов, а при ошибке или
+ * ответе дольше порога умножается на {@code backoffRatio}.
+ * <p>
+ * Запрос сверх лимита не отклоняется сразу, а ждет в очереди освобождения места. Отказ
+ * {@link LimitExceededException} получают запросы сверх {@code maxQueue} и те, кто прождал
+ * дольше {@code queueTimeout}.
+ */
+class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final int maxQueue;
+    private final Duration queueTimeout;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int inFlight;
+    private double limit;
+
+    AimdLimiter(ResilienceProperties.Limiter properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.maxQueue = properties.getMaxQueue();
+        this.queueTimeout = properties.getQueueTimeout();
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * Занимает место под запрос: сразу, если лимит не исчерпан и очередь пуста, иначе после
+     * освобождения места. Отмена или таймаут ожидания возвращает уже выданное место.
+     */
+    Mono<Void> acquire() {
+        return Mono.<Void>create(sink -> {
+                    Waiter waiter = null;
+                    int rejectedAt = -1;
+                    synchronized (this) {
+                        if (waiters.isEmpty() && inFlight < (int) limit) {
+                            inFlight++;
+                        } else if (waiters.size() >= maxQueue) {
+                            rejectedAt = (int) limit;
+                        } else {
+                            waiter = new Waiter(sink);
+                            waiters.addLast(waiter);
+                        }
+                    }
+                    if (waiter != null) {
+                        Waiter queued = waiter;
+                        sink.onCancel(() -> abandon(queued));
+                    } else if (rejectedAt >= 0) {
+                        sink.error(new LimitExceededException(rejectedAt, "очередь заполнена"));
+                    } else {
+                        sink.success();
+                    }
+                })
+                .timeout(queueTimeout, Mono.defer(() -> Mono.error(
+                        new LimitExceededException(limit(), "ожидание дольше " + queueTimeout.toMillis() + " мс"))));
+    }
+
+    /**
+     * Освобождает место, пересчитывает лимит по результату запроса и передает места ожидающим.
+     */
+    void release(long rttNanos, boolean failed) {
+        List<Waiter> granted;
+        synchronized (this) {
+            inFlight--;
+            if (failed || rttNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            granted = grant();
+        }
+        handOver(granted);
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return waiters.size();
+    }
+
+    /**
+     * Ожидающий ушел: если место уже выдано, оно возвращается следующему в очереди.
+     */
+    private void abandon(Waiter waiter) {
+        List<Waiter> granted;
+        synchronized (this) {
+            if (!waiter.granted) {
+                waiters.remove(waiter);
+                return;
+            }
+            inFlight--;
+            granted = grant();
+        }
+        handOver(granted);
+    }
+
+    /**
+     * Место передается вне потока, освободившего его: блокирующий транспорт выполнит запрос
+     * в том потоке, где завершилось ожидание.
+     */
+    private static void handOver(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            Schedulers.boundedElastic().schedule(waiter.sink::success);
+        }
+    }
+
+    private List<Waiter> grant() {
+        List<Waiter> granted = new ArrayList<>();
+        while (!waiters.isEmpty() && inFlight < (int) limit) {
+            Waiter waiter = waiters.pollFirst();
+            waiter.granted = true;
+            inFlight++;
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Void> sink;
+        private boolean granted;
+
+        Waiter(MonoSink<Void> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Отказ адаптивного лимита. Не считается ошибкой предохранителя: перегружен шлюз, а не сервер.
+     */
+    static class LimitExceededException extends RuntimeException {
+        LimitExceededException(int limit, String reason) {
+            super("превышен лимит " + limit + " одновременных запросов, " + reason, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
+
+/**
+ * Экземпляры сервера из {@code shareit-server.url} (несколько адресов через запятую) и их проверка здоровья.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(BalancerProperties.class)
+public class BalancerConfig {
+
+    @Bean
+    public ServerEndpoints serverEndpoints(@Value("${shareit-server.url}") List<String> urls,
+                                           BalancerProperties properties,
+                                           MeterRegistry meterRegistry,
+                                           TaskScheduler taskScheduler) {
+        ServerEndpoints endpoints = new ServerEndpoints(urls, properties, meterRegistry);
+        if (urls.size() > 1) {
+            taskScheduler.scheduleWithFixedDelay(endpoints::checkHealth, properties.getHealthCheckInterval());
+        }
+        return endpoints;
+    }
+}
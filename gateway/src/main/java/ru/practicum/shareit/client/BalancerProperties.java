@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки балансировки между экземплярами сервера, перечисленными через запятую в {@code shareit-server.url}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.balancer")
+public class BalancerProperties {
+    /**
+     * Период опроса {@code /actuator/health} каждого экземпляра.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+    /**
+     * Сколько ошибок подряд выводят экземпляр из балансировки.
+     */
+    private int ejectionConsecutiveFailures = 5;
+    /**
+     * На сколько экземпляр выводится из балансировки после серии ошибок.
+     */
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+    /**
+     * Заголовок запроса, по которому запросы одного пользователя направляются на один экземпляр.
+     * Пустое значение отключает привязку.
+     */
+    private String affinityHeader = "X-Sharer-User-Id";
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Объединяет одинаковые GET-запросы, выполняющиеся одновременно: на сервер уходит один запрос,
+ * его ответ получают все ожидающие. Ключ складывается из метода, пути, параметров и
+ * {@code X-Sharer-User-Id}, поэтому ответы разных пользователей не смешиваются.
+ * <p>
+ * Метрика {@code gateway.coalescing.requests} с тегом {@code role=leader|follower} показывает,
+ * сколько запросов ушло на сервер и сколько получили чужой ответ; доля follower от суммы и есть
+ * коэффициент объединения.
+ */
+class CoalescingTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final String apiPrefix;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    CoalescingTransport(ServerTransport delegate, String apiPrefix, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.apiPrefix = apiPrefix;
+        this.leaders = counter(registry, "leader");
+        this.followers = counter(registry, "follower");
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, Map::size)
+                .description("Уникальные GET-запросы, ожидающие ответа сервера")
+                .tag("client", apiPrefix)
+                .register(registry);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, headers, parameters, body);
+        }
+        String key = RequestKey.of(apiPrefix, path, headers, parameters);
+        return Mono.defer(() -> {
+            boolean[] leader = new boolean[1];
+            Mono<ResponseEntity<Object>> call = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return delegate.exchange(method, path, headers, parameters, null)
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            (leader[0] ? leaders : followers).increment();
+            return call;
+        });
+    }
+
+
+    private Counter counter(MeterRegistry registry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("GET-запросы к серверу: leader ушел на сервер, follower получил ответ leader")
+                .tag("client", apiPrefix)
+                .tag("role", role)
+                .register(registry);
+    }
+}
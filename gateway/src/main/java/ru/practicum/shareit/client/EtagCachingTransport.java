@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Кэш ответов на GET-запросы с ETag. Сохраненный ответ перепроверяется на сервере через
+ * {@code If-None-Match}: на 304 клиенту отдается сохраненное тело без повторной передачи
+ * и сериализации, на 200 запись заменяется новым ответом. Сервер отдает ETag только там, где
+ * может посчитать его без сериализации тела (сейчас это {@code GET /users/{id}}, {@code /items/{id}}
+ * и {@code /requests/{id}}); остальные ответы не сохраняются.
+ * <p>
+ * Метрика {@code gateway.response-cache.revalidations} с тегом {@code result=not_modified|modified}
+ * показывает исход перепроверок, метрики {@code cache.*} с {@code cache=gatewayResponses} — заполнение кэша.
+ */
+class EtagCachingTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final String apiPrefix;
+    private final Cache<String, ResponseEntity<Object>> responses;
+    private final Counter notModified;
+    private final Counter modified;
+
+    EtagCachingTransport(ServerTransport delegate, String apiPrefix, long maxEntries, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.apiPrefix = apiPrefix;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, responses, "gatewayResponses", Tags.of("client", apiPrefix));
+        this.notModified = counter(registry, "not_modified");
+        this.modified = counter(registry, "modified");
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, headers, parameters, body);
+        }
+        return Mono.defer(() -> {
+            String key = RequestKey.of(apiPrefix, path, headers, parameters);
+            ResponseEntity<Object> cached = responses.getIfPresent(key);
+            HttpHeaders requestHeaders = headers;
+            if (cached != null) {
+                requestHeaders = new HttpHeaders();
+                requestHeaders.addAll(headers);
+                requestHeaders.setIfNoneMatch(cached.getHeaders().getETag());
+            }
+            return delegate.exchange(method, path, requestHeaders, parameters, null)
+                    .map(response -> {
+                        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                            notModified.increment();
+                            return cached;
+                        }
+                        if (cached != null) {
+                            modified.increment();
+                        }
+                        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+                            responses.put(key, response);
+                        } else {
+                            responses.invalidate(key);
+                        }
+                        return response;
+                    });
+        });
+    }
+
+    private Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("gateway.response-cache.revalidations")
+                .description("Перепроверки сохраненных ответов на сервере по If-None-Match")
+                .tag("client", apiPrefix)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Отправляет каждый запрос на экземпляр сервера, выбранный {@link ServerEndpoints}: запросы
+ * пользователя — на закрепленный за ним экземпляр.
+ * Ответы 5xx и сетевые ошибки засчитываются экземпляру как неудачи. GET при сетевой ошибке
+ * однократно повторяется на другом экземпляре: остановленный сервер выводится из балансировки
+ * только после проверки здоровья или серии ошибок.
+ */
+class LoadBalancedTransport implements ServerTransport {
+    private final ServerEndpoints endpoints;
+    private final Map<ServerEndpoints.Endpoint, ServerTransport> transports;
+
+    LoadBalancedTransport(ServerEndpoints endpoints, Function<String, ServerTransport> transportFactory) {
+        this.endpoints = endpoints;
+        this.transports = endpoints.all().stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                        endpoint -> transportFactory.apply(endpoint.url())));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return attempt(method, path, headers, parameters, body, null);
+    }
+
+    private Mono<ResponseEntity<Object>> attempt(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                                 @Nullable ServerEndpoints.Endpoint failedBefore) {
+        return Mono.defer(() -> {
+            ServerEndpoints.Endpoint endpoint = endpoints.acquire(endpoints.affinityKey(headers), failedBefore);
+            boolean[] failed = new boolean[1];
+            Mono<ResponseEntity<Object>> call = transports.get(endpoint).exchange(method, path, headers, parameters, body)
+                    .doOnNext(response -> failed[0] = response.getStatusCode().is5xxServerError())
+                    .doFinally(signal -> endpoints.release(endpoint, failed[0] || signal == SignalType.ON_ERROR));
+            if (method != HttpMethod.GET || failedBefore != null) {
+                return call;
+            }
+            return call.onErrorResume(e -> attempt(method, path, headers, parameters, body, endpoint));
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Set;
+
+/**
+ * Заголовки ответа сервера, которые можно передать клиенту шлюза как есть.
+ */
+final class ProxyHeaders {
+    /**
+     * Заголовки одного соединения (RFC 7230, 6.1), а также длина тела и дата, которые выставляет сам шлюз:
+     * ответ может быть взят из кэша шлюза, и дата сервера в нем устарела.
+     */
+    private static final Set<String> EXCLUDED = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length", "date");
+
+    private ProxyHeaders() {
+    }
+
+    static HttpHeaders forward(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (!EXCLUDED.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+}
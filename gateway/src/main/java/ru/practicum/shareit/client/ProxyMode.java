@@ -0,0 +1,9 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Режим проксирования запросов на сервер, задается свойством {@code shareit-server.proxy-mode}.
+ */
+public enum ProxyMode {
+    BLOCKING,
+    REACTIVE
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ключ GET-запроса к серверу: префикс API, путь, параметры и пользователь из {@code X-Sharer-User-Id}.
+ */
+final class RequestKey {
+    private RequestKey() {
+    }
+
+    static String of(String apiPrefix, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters) {
+        StringBuilder key = new StringBuilder(apiPrefix).append(path);
+        if (parameters != null) {
+            key.append(' ').append(new TreeMap<>(parameters));
+        }
+        return key.append(" user=").append(headers.getFirst("X-Sharer-User-Id")).toString();
+    }
+}
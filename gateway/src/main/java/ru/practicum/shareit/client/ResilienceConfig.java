@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Реестры предохранителей и bulkhead клиентов сервера и их метрики.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry serverCircuitBreakers(ResilienceProperties properties) {
+        ResilienceProperties.Breaker breaker = properties.getBreaker();
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.getFailureRateThreshold())
+                .slowCallDurationThreshold(breaker.getSlowCallDurationThreshold())
+                .slowCallRateThreshold(breaker.getSlowCallRateThreshold())
+                .slidingWindowSize(breaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(breaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breaker.getWaitDurationInOpenState())
+                .ignoreExceptions(AimdLimiter.LimitExceededException.class, BulkheadFullException.class)
+                .build());
+    }
+
+    @Bean
+    public BulkheadRegistry serverBulkheads() {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    @Bean
+    public MeterBinder serverResilienceMetrics(CircuitBreakerRegistry serverCircuitBreakers,
+                                               BulkheadRegistry serverBulkheads) {
+        return (MeterRegistry registry) -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(serverCircuitBreakers).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(serverBulkheads).bindTo(registry);
+        };
+    }
+
+    @Bean
+    public ResilientTransports resilientTransports(ResilienceProperties properties,
+                                                   CircuitBreakerRegistry serverCircuitBreakers,
+                                                   BulkheadRegistry serverBulkheads,
+                                                   MeterRegistry meterRegistry) {
+        return new ResilientTransports(properties, serverCircuitBreakers, serverBulkheads, meterRegistry);
+    }
+}
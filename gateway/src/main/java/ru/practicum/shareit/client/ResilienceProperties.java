@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки защиты сервера от перегрузки: отдельные для каждого клиента bulkhead, предохранитель
+ * и адаптивный лимит одновременных запросов. Клиент определяется префиксом API без слэша:
+ * {@code bookings}, {@code items}, {@code requests}, {@code users}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+    private boolean enabled = false;
+    /**
+     * Максимум одновременных запросов клиента, если для него не задано значение в {@link #bulkhead}.
+     */
+    private int defaultBulkhead = 50;
+    private Map<String, Integer> bulkhead = new HashMap<>();
+    private Breaker breaker = new Breaker();
+    private Limiter limiter = new Limiter();
+
+    public int bulkheadFor(String client) {
+        return bulkhead.getOrDefault(client, defaultBulkhead);
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        /**
+         * Доля ошибок в процентах, при которой предохранитель размыкается.
+         */
+        private float failureRateThreshold = 50;
+        /**
+         * Запрос дольше этого считается медленным.
+         */
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+        /**
+         * Доля медленных запросов в процентах, при которой предохранитель размыкается.
+         */
+        private float slowCallRateThreshold = 80;
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Limiter {
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        /**
+         * Во сколько раз уменьшается лимит при ошибке или медленном ответе.
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * Ответ дольше этого считается признаком перегрузки сервера.
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        /**
+         * Сколько запросов может ждать места сверх лимита. Ожидающие занимают место в bulkhead,
+         * поэтому очередь не длиннее разницы между bulkhead и текущим лимитом.
+         */
+        private int maxQueue = 100;
+        /**
+         * Сколько запрос ждет места, прежде чем получить 503.
+         */
+        private Duration queueTimeout = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.util.Map;
+
+/**
+ * Запросы клиента проходят через bulkhead, предохранитель и адаптивный лимит. Bulkhead стоит снаружи
+ * предохранителя: его отказ означает перегрузку шлюза, а не сервера, и не размыкает предохранитель.
+ * Ответы 5xx считаются ошибками предохранителя и уменьшают лимит, но клиенту шлюза возвращаются как есть. Отказ
+ * по любой из защит превращается в {@link ServerUnavailableException} и ответ 503.
+ * <p>
+ * Запрос сверх лимита ждет в очереди лимита; отказ получает только запрос сверх очереди или
+ * прождавший дольше таймаута.
+ * <p>
+ * Лимит публикуется как {@code gateway.limiter.limit}, {@code gateway.limiter.in-flight} и
+ * {@code gateway.limiter.queued}, отказы как {@code gateway.limiter.rejections}; состояние
+ * предохранителя и bulkhead — метриками {@code resilience4j.circuitbreaker.*} и {@code resilience4j.bulkhead.*}.
+ */
+class ResilientTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final String client;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AimdLimiter limiter;
+    private final Counter rejections;
+
+    ResilientTransport(ServerTransport delegate, String client, CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+                       AimdLimiter limiter, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.client = client;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.limiter = limiter;
+        Gauge.builder("gateway.limiter.limit", limiter, AimdLimiter::limit)
+                .description("Текущий адаптивный лимит одновременных запросов к серверу")
+                .tag("client", client)
+                .register(registry);
+        Gauge.builder("gateway.limiter.in-flight", limiter, AimdLimiter::inFlight)
+                .description("Запросы к серверу, ожидающие ответа")
+                .tag("client", client)
+                .register(registry);
+        Gauge.builder("gateway.limiter.queued", limiter, AimdLimiter::queued)
+                .description("Запросы, ожидающие места в адаптивном лимите")
+                .tag("client", client)
+                .register(registry);
+        this.rejections = Counter.builder("gateway.limiter.rejections")
+                .description("Запросы, не дождавшиеся места в адаптивном лимите")
+                .tag("client", client)
+                .register(registry);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.defer(() -> limited(method, path, headers, parameters, body))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorResume(ServerErrorResponse.class, e -> Mono.just(e.response))
+                .onErrorMap(this::isRejection, e -> new ServerUnavailableException(
+                        "Сервер перегружен, запрос к " + client + " отклонен: " + e.getMessage()));
+    }
+
+    private Mono<ResponseEntity<Object>> limited(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return limiter.acquire()
+                .doOnError(AimdLimiter.LimitExceededException.class, e -> rejections.increment())
+                .then(Mono.defer(() -> call(method, path, headers, parameters, body)));
+    }
+
+    private Mono<ResponseEntity<Object>> call(HttpMethod method, String path, HttpHeaders headers,
+                                              @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        long start = System.nanoTime();
+        boolean[] failed = new boolean[1];
+        return delegate.exchange(method, path, headers, parameters, body)
+                .flatMap(response -> {
+                    if (response.getStatusCode().is5xxServerError()) {
+                        failed[0] = true;
+                        return Mono.error(new ServerErrorResponse(response));
+                    }
+                    return Mono.just(response);
+                })
+                .doFinally(signal -> limiter.release(System.nanoTime() - start,
+                        failed[0] || signal == SignalType.ON_ERROR));
+    }
+
+    private boolean isRejection(Throwable e) {
+        return e instanceof AimdLimiter.LimitExceededException
+                || e instanceof BulkheadFullException
+                || e instanceof CallNotPermittedException;
+    }
+
+    /**
+     * Ответ 5xx, переданный через предохранитель как ошибка.
+     */
+    private static class ServerErrorResponse extends RuntimeException {
+        private final transient ResponseEntity<Object> response;
+
+        ServerErrorResponse(ResponseEntity<Object> response) {
+            super("Ответ сервера " + response.getStatusCodeValue(), null, false, false);
+            this.response = response;
+        }
+    }
+}
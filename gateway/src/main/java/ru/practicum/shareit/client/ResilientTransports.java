@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Оборачивает транспорт клиента в {@link ResilientTransport} с собственными предохранителем,
+ * bulkhead и лимитом, чтобы медленные запросы одного клиента не занимали место запросов другого.
+ */
+public class ResilientTransports {
+    private final ResilienceProperties properties;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+
+    ResilientTransports(ResilienceProperties properties, CircuitBreakerRegistry circuitBreakers,
+                        BulkheadRegistry bulkheads, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.meterRegistry = meterRegistry;
+    }
+
+    ServerTransport protect(String apiPrefix, ServerTransport transport) {
+        if (!properties.isEnabled()) {
+            return transport;
+        }
+        String client = apiPrefix.substring(1);
+        BulkheadConfig bulkheadConfig = BulkheadConfig.from(bulkheads.getDefaultConfig())
+                .maxConcurrentCalls(properties.bulkheadFor(client))
+                .build();
+        return new ResilientTransport(transport, client,
+                circuitBreakers.circuitBreaker(client),
+                bulkheads.bulkhead(client, bulkheadConfig),
+                new AimdLimiter(properties.getLimiter()),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Блокирующая доставка: запрос выполняется в потоке, подписавшемся на результат,
+ * то есть в потоке сервлета. В режиме passthrough тело ответа не разбирается,
+ * а возвращается байтами вместе с заголовками сервера.
+ */
+class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final boolean passthrough;
+
+    RestTemplateTransport(RestTemplate rest, boolean passthrough) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> {
+            HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+            try {
+                if (passthrough) {
+                    ResponseEntity<byte[]> response = parameters != null
+                            ? rest.exchange(path, method, requestEntity, byte[].class, parameters)
+                            : rest.exchange(path, method, requestEntity, byte[].class);
+                    return ResponseEntity.status(response.getStatusCode())
+                            .headers(ProxyHeaders.forward(response.getHeaders()))
+                            .body(response.getBody());
+                }
+                if (parameters != null) {
+                    return rest.exchange(path, method, requestEntity, Object.class, parameters);
+                }
+                return rest.exchange(path, method, requestEntity, Object.class);
+            } catch (HttpStatusCodeException e) {
+                ResponseEntity.BodyBuilder error = ResponseEntity.status(e.getStatusCode());
+                if (passthrough && e.getResponseHeaders() != null) {
+                    error.headers(ProxyHeaders.forward(e.getResponseHeaders()));
+                }
+                return error.body(e.getResponseBodyAsByteArray());
+            }
+        });
+    }
+}
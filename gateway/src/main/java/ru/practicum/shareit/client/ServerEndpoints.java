@@ -0,0 +1,202 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Экземпляры сервера и их состояние. Запросы одного пользователя (заголовок
+ * {@code shareit-server.balancer.affinity-header}) идут на один и тот же доступный экземпляр
+ * (rendezvous hashing): так пользователь читает свои изменения из кэшей и закрепления за основным пулом
+ * того экземпляра, где их сделал. Остальные запросы получает тот из двух случайно выбранных доступных
+ * экземпляров, у которого меньше запросов в работе (power of two choices). Экземпляр недоступен,
+ * если не отвечает на {@code /actuator/health} или выведен из балансировки после серии ошибок.
+ * Если недоступны все, выбор идет среди всех экземпляров.
+ * <p>
+ * Метрики: {@code gateway.balancer.outstanding} и {@code gateway.balancer.available}
+ * с тегом {@code endpoint}, {@code gateway.balancer.ejections}.
+ */
+@Slf4j
+public class ServerEndpoints {
+    private final List<Endpoint> endpoints;
+    private final BalancerProperties properties;
+    private final HttpClient healthClient;
+
+    ServerEndpoints(List<String> urls, BalancerProperties properties, MeterRegistry registry) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Не задан адрес сервера shareit-server.url");
+        }
+        this.properties = properties;
+        this.endpoints = urls.stream()
+                .map(url -> new Endpoint(url, registry))
+                .collect(Collectors.toUnmodifiableList());
+        this.healthClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getHealthCheckTimeout())
+                .build();
+    }
+
+    List<Endpoint> all() {
+        return endpoints;
+    }
+
+    /**
+     * Ключ привязки запроса к экземпляру или null, если запрос можно отправить на любой.
+     */
+    @Nullable
+    String affinityKey(HttpHeaders headers) {
+        String header = properties.getAffinityHeader();
+        return StringUtils.hasText(header) ? headers.getFirst(header) : null;
+    }
+
+    /**
+     * Выбирает экземпляр для запроса, по возможности отличный от {@code exclude}.
+     * Для одного и того же {@code affinityKey} выбор не меняется, пока набор доступных экземпляров тот же.
+     */
+    Endpoint acquire(@Nullable String affinityKey, @Nullable Endpoint exclude) {
+        List<Endpoint> candidates = available();
+        if (exclude != null && candidates.size() > 1) {
+            candidates = new ArrayList<>(candidates);
+            candidates.remove(exclude);
+        }
+        Endpoint chosen;
+        if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else if (affinityKey != null) {
+            chosen = candidates.get(0);
+            long best = weight(affinityKey, chosen);
+            for (int i = 1; i < candidates.size(); i++) {
+                long candidateWeight = weight(affinityKey, candidates.get(i));
+                if (candidateWeight > best) {
+                    best = candidateWeight;
+                    chosen = candidates.get(i);
+                }
+            }
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            Endpoint a = candidates.get(first);
+            Endpoint b = candidates.get(second);
+            chosen = a.outstanding.get() <= b.outstanding.get() ? a : b;
+        }
+        chosen.outstanding.incrementAndGet();
+        return chosen;
+    }
+
+    /**
+     * Завершает запрос к экземпляру: ошибки подряд копятся, успех их сбрасывает.
+     */
+    void release(Endpoint endpoint, boolean failed) {
+        endpoint.outstanding.decrementAndGet();
+        if (!failed) {
+            endpoint.consecutiveFailures.set(0);
+            return;
+        }
+        if (endpoint.consecutiveFailures.incrementAndGet() >= properties.getEjectionConsecutiveFailures()) {
+            endpoint.consecutiveFailures.set(0);
+            endpoint.ejectedUntil = System.nanoTime() + properties.getEjectionDuration().toNanos();
+            endpoint.ejections.increment();
+            log.warn("Сервер {} выведен из балансировки на {} после серии ошибок", endpoint.url,
+                    properties.getEjectionDuration());
+        }
+    }
+
+    void checkHealth() {
+        for (Endpoint endpoint : endpoints) {
+            HttpRequest request = HttpRequest.newBuilder(endpoint.health)
+                    .timeout(properties.getHealthCheckTimeout())
+                    .GET()
+                    .build();
+            healthClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, e) -> {
+                        endpoint.setHealthy(e == null && response.statusCode() == 200);
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Вес пары ключ-экземпляр: ключ достается экземпляру с наибольшим весом, поэтому при выходе
+     * экземпляра из балансировки переезжают только его ключи.
+     */
+    private static long weight(String affinityKey, Endpoint endpoint) {
+        long hash = ((long) affinityKey.hashCode() << 32) ^ endpoint.url.hashCode();
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private List<Endpoint> available() {
+        long now = System.nanoTime();
+        List<Endpoint> available = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                available.add(endpoint);
+            }
+        }
+        return available.isEmpty() ? endpoints : available;
+    }
+
+    static final class Endpoint {
+        private final String url;
+        private final URI health;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final Counter ejections;
+        private volatile boolean healthy = true;
+        private volatile long ejectedUntil = System.nanoTime();
+
+        private Endpoint(String url, MeterRegistry registry) {
+            this.url = url;
+            this.health = URI.create(url + "/actuator/health");
+            Gauge.builder("gateway.balancer.outstanding", outstanding, AtomicInteger::get)
+                    .description("Запросы к экземпляру сервера, ожидающие ответа")
+                    .tag("endpoint", url)
+                    .register(registry);
+            Gauge.builder("gateway.balancer.available", this, endpoint -> endpoint.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .description("1, если экземпляр сервера участвует в балансировке")
+                    .tag("endpoint", url)
+                    .register(registry);
+            this.ejections = Counter.builder("gateway.balancer.ejections")
+                    .description("Выводы экземпляра сервера из балансировки после серии ошибок")
+                    .tag("endpoint", url)
+                    .register(registry);
+        }
+
+        String url() {
+            return url;
+        }
+
+        private boolean isAvailable(long now) {
+            return healthy && now - ejectedUntil >= 0;
+        }
+
+        private void setHealthy(boolean healthy) {
+            if (this.healthy != healthy) {
+                if (healthy) {
+                    log.info("Сервер {} снова отвечает на проверку здоровья", url);
+                } else {
+                    log.warn("Сервер {} не прошел проверку здоровья", url);
+                }
+            }
+            this.healthy = healthy;
+        }
+    }
+}
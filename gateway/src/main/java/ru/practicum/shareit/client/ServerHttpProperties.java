@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула HTTP-соединений шлюза с сервером.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpProperties {
+    /**
+     * Максимум соединений в пуле.
+     */
+    private int maxTotal = 200;
+    /**
+     * Максимум соединений к одному адресу сервера.
+     */
+    private int maxPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /**
+     * Сколько ждать свободного соединения из пула.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    /**
+     * Время жизни простаивающего соединения, если сервер не прислал Keep-Alive.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+    /**
+     * Простаивающие дольше этого соединения закрываются фоновым потоком.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(60);
+    /**
+     * Соединение, простоявшее дольше этого, проверяется перед выдачей из пула.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    /**
+     * Максимум соединений неблокирующего клиента в режиме {@code reactive}.
+     */
+    private int reactiveMaxConnections = 2000;
+    /**
+     * Максимум запросов, ожидающих соединение неблокирующего клиента.
+     */
+    private int reactivePendingAcquireMaxCount = 10000;
+}
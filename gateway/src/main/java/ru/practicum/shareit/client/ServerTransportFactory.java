@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+/**
+ * Создает транспорт для клиента с заданным префиксом API в выбранном режиме проксирования.
+ * Если экземпляров сервера несколько, запросы распределяются между ними через {@link LoadBalancedTransport}.
+ * При {@code shareit-server.passthrough=true} ответы сервера передаются клиенту без разбора JSON,
+ * при {@code shareit-server.coalescing=true} одинаковые одновременные GET-запросы объединяются,
+ * при {@code shareit-server.response-cache.enabled=true} ответы с ETag кэшируются и перепроверяются на сервере,
+ * при {@code shareit-server.resilience.enabled=true} запросы проходят через защиту от перегрузки сервера.
+ */
+@Component
+public class ServerTransportFactory {
+    private final ServerEndpoints serverEndpoints;
+    private final ProxyMode mode;
+    private final boolean passthrough;
+    private final boolean coalescing;
+    private final boolean responseCache;
+    private final long responseCacheMaxEntries;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ClientHttpRequestFactory serverRequestFactory;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectProvider<ClientHttpConnector> serverConnector;
+    private final MeterRegistry meterRegistry;
+    private final ResilientTransports resilientTransports;
+
+    public ServerTransportFactory(ServerEndpoints serverEndpoints,
+                                  @Value("${shareit-server.proxy-mode:blocking}") ProxyMode mode,
+                                  @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                                  @Value("${shareit-server.coalescing:false}") boolean coalescing,
+                                  @Value("${shareit-server.response-cache.enabled:false}") boolean responseCache,
+                                  @Value("${shareit-server.response-cache.max-entries:10000}") long responseCacheMaxEntries,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  ClientHttpRequestFactory serverRequestFactory,
+                                  WebClient.Builder webClientBuilder,
+                                  ObjectProvider<ClientHttpConnector> serverConnector,
+                                  MeterRegistry meterRegistry,
+                                  ResilientTransports resilientTransports) {
+        this.serverEndpoints = serverEndpoints;
+        this.mode = mode;
+        this.passthrough = passthrough;
+        this.coalescing = coalescing;
+        this.responseCache = responseCache;
+        this.responseCacheMaxEntries = responseCacheMaxEntries;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.serverRequestFactory = serverRequestFactory;
+        this.webClientBuilder = webClientBuilder;
+        this.serverConnector = serverConnector;
+        this.meterRegistry = meterRegistry;
+        this.resilientTransports = resilientTransports;
+    }
+
+    public ServerTransport create(String apiPrefix) {
+        ServerTransport transport = serverEndpoints.all().size() == 1
+                ? createDirect(serverEndpoints.all().get(0).url(), apiPrefix)
+                : new LoadBalancedTransport(serverEndpoints, url -> createDirect(url, apiPrefix));
+        transport = resilientTransports.protect(apiPrefix, transport);
+        if (responseCache) {
+            transport = new EtagCachingTransport(transport, apiPrefix, responseCacheMaxEntries, meterRegistry);
+        }
+        return coalescing ? new CoalescingTransport(transport, apiPrefix, meterRegistry) : transport;
+    }
+
+    private ServerTransport createDirect(String serverUrl, String apiPrefix) {
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+        if (mode == ProxyMode.REACTIVE) {
+            return new WebClientTransport(webClientBuilder.clone()
+                    .uriBuilderFactory(uriBuilderFactory)
+                    .clientConnector(serverConnector.getObject())
+                    .build(), passthrough);
+        }
+        return new RestTemplateTransport(restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .requestFactory(() -> serverRequestFactory)
+                .build(), passthrough);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Неблокирующая доставка через WebClient: поток сервлета освобождается сразу,
+ * ответ обрабатывается на потоках event loop. В режиме passthrough тело ответа
+ * не разбирается, а возвращается байтами вместе с заголовками сервера.
+ */
+class WebClientTransport implements ServerTransport {
+    private final WebClient webClient;
+    private final boolean passthrough;
+
+    WebClientTransport(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(target -> target.addAll(headers));
+        if (body != null) {
+            request.bodyValue(body);
+        }
+        return request.exchangeToMono(response -> {
+            if (passthrough) {
+                return response.toEntity(byte[].class)
+                        .map(entity -> ResponseEntity.status(entity.getStatusCodeValue())
+                                .headers(ProxyHeaders.forward(entity.getHeaders()))
+                                .body(entity.getBody()));
+            }
+            if (response.statusCode().isError()) {
+                return response.bodyToMono(byte[].class)
+                        .map(bytes -> ResponseEntity.status(response.rawStatusCode()).<Object>body(bytes))
+                        .defaultIfEmpty(ResponseEntity.status(response.rawStatusCode()).build());
+            }
+            return response.toEntity(Object.class);
+        });
+    }
+}
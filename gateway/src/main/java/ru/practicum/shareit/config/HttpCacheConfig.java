@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Сквозные 304 для клиентов шлюза. Если в ответе уже есть ETag сервера, фильтр сравнивает
+ * {@code If-None-Match} клиента с ним, иначе считает ETag по телу ответа.
+ * <p>
+ * Фильтр буферизует тело ответа, поэтому включается вместе с кэшем ответов
+ * ({@code shareit-server.response-cache.enabled}); без него ответы сервера идут клиенту потоком.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.response-cache.enabled", havingValue = "true")
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items", "/items/*", "/requests", "/requests/*", "/users", "/users/*");
+        registration.setName("etagFilter");
+        return registration;
+    }
+}
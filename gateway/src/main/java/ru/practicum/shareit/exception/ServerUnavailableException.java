@@ -0,0 +1,10 @@
+package ru.practicum.shareit.exception;
+
+/**
+ * Запрос не отправлен на сервер: сработал предохранитель или исчерпан лимит одновременных запросов.
+ */
+public class ServerUnavailableException extends RuntimeException {
+    public ServerUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -2,16 +2,21 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
 import ru.practicum.shareit.item.dto.ItemDtoReqPatch;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -23,44 +28,59 @@ public class ItemController {
 
 
     @GetMapping
-    public ResponseEntity<Object> getByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemClient.getByOwnerId(userId);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @Valid @RequestBody ItemDtoReqCreate itemDto) {
         return itemClient.create(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> patch(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> patch(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestBody ItemDtoReqPatch itemDto, @PathVariable Long itemId) {
         return itemClient.patch(userId, itemDto, itemId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable Long itemId) {
         return itemClient.getById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime start,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало интервала должно быть раньше окончания");
+        }
+        return itemClient.getAvailability(userId, itemId, start, end);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchByText(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam String text) {
-        return itemClient.searchItems(userId, text);
+    public Mono<ResponseEntity<Object>> searchByText(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam String text,
+                                               @RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
+                                               @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
+        return itemClient.searchItems(userId, text, from, size);
     }
 
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> delete(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> delete(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @PathVariable Long itemId) {
         return itemClient.delete(userId, itemId);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                 @Valid @RequestBody CommentDto commentDto,
                                                 @PathVariable Long itemId) {
         return itemClient.createComment(userId, itemId, commentDto);
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -22,28 +23,28 @@ public class UserController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         return userClient.create(userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long userId) {
         return userClient.getById(userId);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> patch(@PathVariable Long userId,
+    public Mono<ResponseEntity<Object>> patch(@PathVariable Long userId,
                                         @RequestBody UserDto userDto) {
         return userClient.patch(userId, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return userClient.getAll();
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable Long userId) {
         return userClient.deleteById(userId);
     }
 
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimiterTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void release_whenFastSuccess_thenLimitGrowsByOneAboutPerWindow() {
+        AimdLimiter limiter = new AimdLimiter(limiter(20, 5, 200));
+
+        complete(limiter, 20, FAST, false);
+        assertEquals(20, limiter.limit());
+
+        complete(limiter, 1, FAST, false);
+        assertEquals(21, limiter.limit());
+    }
+
+    @Test
+    void release_whenFailedOrSlow_thenLimitMultipliedByBackoffRatio() {
+        AimdLimiter limiter = new AimdLimiter(limiter(20, 5, 200));
+
+        complete(limiter, 1, FAST, true);
+        assertEquals(18, limiter.limit());
+
+        complete(limiter, 1, SLOW, false);
+        assertEquals(16, limiter.limit());
+    }
+
+    @Test
+    void release_whenManyFailures_thenLimitStopsAtMinLimit() {
+        AimdLimiter limiter = new AimdLimiter(limiter(20, 5, 200));
+
+        complete(limiter, 100, FAST, true);
+
+        assertEquals(5, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_whenManySuccesses_thenLimitStopsAtMaxLimit() {
+        AimdLimiter limiter = new AimdLimiter(limiter(20, 5, 22));
+
+        complete(limiter, 1000, FAST, false);
+
+        assertEquals(22, limiter.limit());
+    }
+
+    @Test
+    void acquire_whenLimitReached_thenWaitsForRelease() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(limiter(1, 1, 1));
+        limiter.acquire().block();
+
+        CompletableFuture<Void> waiting = limiter.acquire().toFuture();
+        assertFalse(waiting.isDone());
+        assertEquals(1, limiter.queued());
+
+        limiter.release(FAST, false);
+
+        waiting.get(1, TimeUnit.SECONDS);
+        assertEquals(1, limiter.inFlight());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    void acquire_whenQueueFull_thenLimitExceededExceptionThrown() {
+        ResilienceProperties.Limiter properties = limiter(1, 1, 1);
+        properties.setMaxQueue(1);
+        AimdLimiter limiter = new AimdLimiter(properties);
+        limiter.acquire().block();
+        Disposable queued = limiter.acquire().subscribe();
+
+        assertThrows(AimdLimiter.LimitExceededException.class, () -> limiter.acquire().block());
+        assertEquals(1, limiter.queued());
+        queued.dispose();
+    }
+
+    @Test
+    void acquire_whenWaitedLongerThanQueueTimeout_thenLimitExceededExceptionThrown() {
+        ResilienceProperties.Limiter properties = limiter(1, 1, 1);
+        properties.setQueueTimeout(Duration.ofMillis(50));
+        AimdLimiter limiter = new AimdLimiter(properties);
+        limiter.acquire().block();
+
+        assertThrows(AimdLimiter.LimitExceededException.class, () -> limiter.acquire().block());
+        assertEquals(0, limiter.queued());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    @Test
+    void acquire_whenWaiterCancelled_thenPlaceGoesToNextWaiter() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(limiter(1, 1, 1));
+        limiter.acquire().block();
+        Disposable cancelled = limiter.acquire().subscribe();
+        CompletableFuture<Void> next = limiter.acquire().toFuture();
+
+        cancelled.dispose();
+        assertEquals(1, limiter.queued());
+
+        limiter.release(FAST, false);
+
+        next.get(1, TimeUnit.SECONDS);
+        assertEquals(1, limiter.inFlight());
+    }
+
+    private static void complete(AimdLimiter limiter, int requests, long rttNanos, boolean failed) {
+        for (int i = 0; i < requests; i++) {
+            limiter.acquire().block();
+            limiter.release(rttNanos, failed);
+        }
+    }
+
+    private static ResilienceProperties.Limiter limiter(int initial, int min, int max) {
+        ResilienceProperties.Limiter properties = new ResilienceProperties.Limiter();
+        properties.setInitialLimit(initial);
+        properties.setMinLimit(min);
+        properties.setMaxLimit(max);
+        return properties;
+    }
+}
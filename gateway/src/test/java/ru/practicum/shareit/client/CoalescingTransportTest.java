@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingTransportTest {
+    private final List<Sinks.One<ResponseEntity<Object>>> calls = new ArrayList<>();
+    private final CoalescingTransport transport = new CoalescingTransport(
+            (method, path, headers, parameters, body) -> {
+                Sinks.One<ResponseEntity<Object>> call = Sinks.one();
+                calls.add(call);
+                return call.asMono();
+            },
+            "/items", new SimpleMeterRegistry());
+
+    @Test
+    void exchange_whenSameGetInFlight_thenFollowerGetsLeaderResponse() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> leader = get(1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> follower = get(1L).toFuture();
+
+        ResponseEntity<Object> response = ResponseEntity.ok("вещь");
+        calls.get(0).tryEmitValue(response);
+
+        assertEquals(1, calls.size());
+        assertSame(response, leader.get(1, TimeUnit.SECONDS));
+        assertSame(response, follower.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void exchange_whenDifferentUsers_thenRequestsNotCoalesced() {
+        get(1L).subscribe();
+        get(2L).subscribe();
+
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void exchange_whenLeaderFails_thenFollowerGetsErrorAndNextRequestGoesToServer() {
+        CompletableFuture<ResponseEntity<Object>> leader = get(1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> follower = get(1L).toFuture();
+
+        calls.get(0).tryEmitError(new IllegalStateException("сервер недоступен"));
+
+        assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> follower.get(1, TimeUnit.SECONDS));
+        get(1L).subscribe();
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void exchange_whenLeaderCancelled_thenFollowerStillGetsResponse() throws Exception {
+        Disposable leader = get(1L).subscribe();
+        CompletableFuture<ResponseEntity<Object>> follower = get(1L).toFuture();
+
+        leader.dispose();
+        ResponseEntity<Object> response = ResponseEntity.ok("вещь");
+        calls.get(0).tryEmitValue(response);
+
+        assertEquals(1, calls.size());
+        assertSame(response, follower.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void exchange_whenPatch_thenRequestsNotCoalesced() {
+        transport.exchange(HttpMethod.PATCH, "/1", headers(1L), null, null).subscribe();
+        transport.exchange(HttpMethod.PATCH, "/1", headers(1L), null, null).subscribe();
+
+        assertEquals(2, calls.size());
+    }
+
+    private Mono<ResponseEntity<Object>> get(long userId) {
+        return transport.exchange(HttpMethod.GET, "/1", headers(userId), null, null);
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtagCachingTransportTest {
+    private final Deque<ResponseEntity<Object>> responses = new ArrayDeque<>();
+    private final List<HttpHeaders> requests = new ArrayList<>();
+    private final EtagCachingTransport transport = new EtagCachingTransport(
+            (method, path, headers, parameters, body) -> {
+                requests.add(headers);
+                return Mono.just(responses.removeFirst());
+            },
+            "/users", 100, new SimpleMeterRegistry());
+
+    @Test
+    void exchange_whenServerAnswersNotModified_thenCachedResponseReturned() {
+        ResponseEntity<Object> original = withEtag(HttpStatus.OK, "\"v1\"", "пользователь");
+        responses.add(original);
+        responses.add(withEtag(HttpStatus.NOT_MODIFIED, "\"v1\"", null));
+
+        get();
+        ResponseEntity<Object> revalidated = get();
+
+        assertSame(original, revalidated);
+        assertNull(requests.get(0).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"v1\"", requests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void exchange_whenServerAnswersModified_thenEntryReplaced() {
+        responses.add(withEtag(HttpStatus.OK, "\"v1\"", "старый"));
+        ResponseEntity<Object> changed = withEtag(HttpStatus.OK, "\"v2\"", "новый");
+        responses.add(changed);
+        responses.add(withEtag(HttpStatus.NOT_MODIFIED, "\"v2\"", null));
+
+        get();
+        assertSame(changed, get());
+        assertSame(changed, get());
+
+        assertEquals("\"v2\"", requests.get(2).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void exchange_whenServerAnswersNotFound_thenEntryEvicted() {
+        responses.add(withEtag(HttpStatus.OK, "\"v1\"", "пользователь"));
+        responses.add(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        responses.add(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        get();
+        assertEquals(HttpStatus.NOT_FOUND, get().getStatusCode());
+        get();
+
+        assertNull(requests.get(2).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void exchange_whenResponseWithoutEtag_thenNotCached() {
+        responses.add(ResponseEntity.ok("список"));
+        responses.add(ResponseEntity.ok("список"));
+
+        get();
+        get();
+
+        assertNull(requests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private ResponseEntity<Object> get() {
+        return transport.exchange(HttpMethod.GET, "/1", new HttpHeaders(), null, null).block();
+    }
+
+    private static ResponseEntity<Object> withEtag(HttpStatus status, String etag, Object body) {
+        return ResponseEntity.status(status).eTag(etag).body(body);
+    }
+}
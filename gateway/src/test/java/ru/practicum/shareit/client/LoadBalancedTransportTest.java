@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancedTransportTest {
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void exchange_whenGetFailsWithNetworkError_thenRetriedOnceOnOtherEndpoint() {
+        LoadBalancedTransport transport = transport(Map.of(
+                "http://server-1:9090", Mono.error(new IOException("соединение сброшено")),
+                "http://server-2:9090", Mono.error(new IOException("соединение сброшено")),
+                "http://server-3:9090", Mono.error(new IOException("соединение сброшено"))));
+
+        assertThrows(RuntimeException.class, () -> exchange(transport, HttpMethod.GET));
+
+        assertEquals(2, calls.size());
+        assertNotEquals(calls.get(0), calls.get(1));
+    }
+
+    @Test
+    void exchange_whenRetryOnOtherEndpointSucceeds_thenResponseReturned() {
+        ServerEndpoints endpoints = new ServerEndpoints(List.of("http://server-1:9090", "http://server-2:9090"),
+                new BalancerProperties(), new SimpleMeterRegistry());
+        LoadBalancedTransport transport = new LoadBalancedTransport(endpoints,
+                url -> (method, path, headers, parameters, body) -> {
+                    calls.add(url);
+                    return calls.size() == 1
+                            ? Mono.error(new IOException("соединение сброшено"))
+                            : Mono.just(ResponseEntity.ok("вещь"));
+                });
+
+        ResponseEntity<Object> response = exchange(transport, HttpMethod.GET);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, calls.size());
+        assertNotEquals(calls.get(0), calls.get(1));
+    }
+
+    @Test
+    void exchange_whenPostFailsWithNetworkError_thenNotRetried() {
+        LoadBalancedTransport transport = transport(Map.of(
+                "http://server-1:9090", Mono.error(new IOException("соединение сброшено")),
+                "http://server-2:9090", Mono.error(new IOException("соединение сброшено"))));
+
+        assertThrows(RuntimeException.class, () -> exchange(transport, HttpMethod.POST));
+
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void exchange_whenServerError_thenResponseReturnedWithoutRetry() {
+        LoadBalancedTransport transport = transport(Map.of(
+                "http://server-1:9090", Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()),
+                "http://server-2:9090", Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build())));
+
+        ResponseEntity<Object> response = exchange(transport, HttpMethod.GET);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void exchange_whenSameUser_thenSameEndpoint() {
+        LoadBalancedTransport transport = transport(Map.of(
+                "http://server-1:9090", Mono.just(ResponseEntity.ok("вещь")),
+                "http://server-2:9090", Mono.just(ResponseEntity.ok("вещь")),
+                "http://server-3:9090", Mono.just(ResponseEntity.ok("вещь"))));
+
+        for (int i = 0; i < 10; i++) {
+            exchange(transport, HttpMethod.GET);
+        }
+
+        assertEquals(1, calls.stream().distinct().count());
+    }
+
+    private LoadBalancedTransport transport(Map<String, Mono<ResponseEntity<Object>>> responses) {
+        BalancerProperties properties = new BalancerProperties();
+        ServerEndpoints endpoints = new ServerEndpoints(new ArrayList<>(responses.keySet()), properties,
+                new SimpleMeterRegistry());
+        return new LoadBalancedTransport(endpoints, url -> (method, path, headers, parameters, body) -> {
+            calls.add(url);
+            return responses.get(url);
+        });
+    }
+
+    private static ResponseEntity<Object> exchange(LoadBalancedTransport transport, HttpMethod method) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return transport.exchange(method, "/1", headers, null, null).block();
+    }
+}
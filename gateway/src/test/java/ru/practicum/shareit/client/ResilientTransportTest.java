@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientTransportTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("items");
+
+    @Test
+    void exchange_whenBreakerOpen_thenServerUnavailableExceptionThrown() {
+        circuitBreaker.transitionToForcedOpenState();
+        ResilientTransport transport = transport(Mono.just(ResponseEntity.ok().build()), 10);
+
+        assertThrows(ServerUnavailableException.class, () -> get(transport).block());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void exchange_whenBulkheadFull_thenServerUnavailableExceptionThrown() {
+        ResilientTransport transport = transport(Mono.never(), 1);
+        Disposable first = get(transport).subscribe();
+
+        assertThrows(ServerUnavailableException.class, () -> get(transport).block());
+        assertEquals(1, calls.get());
+        first.dispose();
+    }
+
+    @Test
+    void exchange_whenBulkheadFullRepeatedly_thenBreakerStaysClosed() {
+        ResilientTransport transport = transport(Mono.never(), 1);
+        Disposable first = get(transport).subscribe();
+
+        for (int i = 0; i < 200; i++) {
+            assertThrows(ServerUnavailableException.class, () -> get(transport).block());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        first.dispose();
+    }
+
+    @Test
+    void exchange_whenServerError_thenResponseReturnedAndCountedByBreaker() {
+        ResilientTransport transport = transport(
+                Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()), 10);
+
+        ResponseEntity<Object> response = get(transport).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void exchange_whenLimitReached_thenRequestWaitsInsteadOfRejected() {
+        ResilienceProperties.Limiter properties = new ResilienceProperties.Limiter();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        Mono<ResponseEntity<Object>> slow = Mono.just(ResponseEntity.ok().<Object>build())
+                .delayElement(Duration.ofMillis(50));
+        ResilientTransport transport = transport(slow, 10, new AimdLimiter(properties));
+
+        Disposable first = get(transport).subscribe();
+        ResponseEntity<Object> second = get(transport).block(Duration.ofSeconds(1));
+
+        assertNotNull(second);
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(2, calls.get());
+        first.dispose();
+    }
+
+    private ResilientTransport transport(Mono<ResponseEntity<Object>> response, int maxConcurrentCalls) {
+        return transport(response, maxConcurrentCalls, new AimdLimiter(new ResilienceProperties.Limiter()));
+    }
+
+    private ResilientTransport transport(Mono<ResponseEntity<Object>> response, int maxConcurrentCalls,
+                                         AimdLimiter limiter) {
+        ServerTransport delegate = (method, path, headers, parameters, body) -> {
+            calls.incrementAndGet();
+            return response;
+        };
+        Bulkhead bulkhead = Bulkhead.of("items", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        return new ResilientTransport(delegate, "items", circuitBreaker, bulkhead, limiter, new SimpleMeterRegistry());
+    }
+
+    private static Mono<ResponseEntity<Object>> get(ResilientTransport transport) {
+        return transport.exchange(HttpMethod.GET, "/1", new HttpHeaders(), null, null);
+    }
+}
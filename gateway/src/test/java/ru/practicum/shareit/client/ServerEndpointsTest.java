@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerEndpointsTest {
+    private static final List<String> URLS = List.of("http://server-1:9090", "http://server-2:9090", "http://server-3:9090");
+
+    @Test
+    void release_whenConsecutiveFailures_thenEndpointEjectedAndLaterReturned() throws InterruptedException {
+        ServerEndpoints endpoints = endpoints(Duration.ofMillis(200));
+        ServerEndpoints.Endpoint failing = endpoints.all().get(0);
+
+        fail(endpoints, failing);
+        fail(endpoints, failing);
+
+        assertFalse(pickedIn100(endpoints).contains(failing.url()));
+
+        Thread.sleep(300);
+
+        assertTrue(pickedIn100(endpoints).contains(failing.url()));
+    }
+
+    @Test
+    void release_whenSuccessBetweenFailures_thenEndpointNotEjected() {
+        ServerEndpoints endpoints = endpoints(Duration.ofMinutes(1));
+        ServerEndpoints.Endpoint endpoint = endpoints.all().get(0);
+
+        fail(endpoints, endpoint);
+        succeed(endpoints, endpoint);
+        fail(endpoints, endpoint);
+
+        assertTrue(pickedIn100(endpoints).contains(endpoint.url()));
+    }
+
+    @Test
+    void acquire_whenSameAffinityKey_thenSameEndpoint() {
+        ServerEndpoints endpoints = endpoints(Duration.ofMinutes(1));
+
+        ServerEndpoints.Endpoint first = endpoints.acquire("7", null);
+        for (int i = 0; i < 20; i++) {
+            assertSame(first, endpoints.acquire("7", null));
+        }
+    }
+
+    @Test
+    void acquire_whenEndpointEjected_thenOnlyItsKeysMove() {
+        ServerEndpoints endpoints = endpoints(Duration.ofMinutes(1));
+        Map<String, ServerEndpoints.Endpoint> before = assignments(endpoints);
+        ServerEndpoints.Endpoint ejected = endpoints.all().get(0);
+
+        fail(endpoints, ejected);
+        fail(endpoints, ejected);
+        Map<String, ServerEndpoints.Endpoint> after = assignments(endpoints);
+
+        before.forEach((key, endpoint) -> {
+            if (endpoint == ejected) {
+                assertNotSame(ejected, after.get(key));
+            } else {
+                assertSame(endpoint, after.get(key));
+            }
+        });
+    }
+
+    @Test
+    void acquire_whenExcluded_thenOtherEndpointChosen() {
+        ServerEndpoints endpoints = endpoints(Duration.ofMinutes(1));
+        ServerEndpoints.Endpoint usual = endpoints.acquire("7", null);
+
+        assertNotSame(usual, endpoints.acquire("7", usual));
+    }
+
+    private static void fail(ServerEndpoints endpoints, ServerEndpoints.Endpoint target) {
+        endpoints.release(acquire(endpoints, target), true);
+    }
+
+    private static void succeed(ServerEndpoints endpoints, ServerEndpoints.Endpoint target) {
+        endpoints.release(acquire(endpoints, target), false);
+    }
+
+    /**
+     * Запрос на нужный экземпляр: перебираются ключи привязки, пока один из них не попадет на него.
+     */
+    private static ServerEndpoints.Endpoint acquire(ServerEndpoints endpoints, ServerEndpoints.Endpoint target) {
+        for (int key = 0; ; key++) {
+            ServerEndpoints.Endpoint endpoint = endpoints.acquire("key-" + key, null);
+            if (endpoint == target) {
+                return endpoint;
+            }
+            endpoints.release(endpoint, false);
+        }
+    }
+
+    private static Map<String, ServerEndpoints.Endpoint> assignments(ServerEndpoints endpoints) {
+        Map<String, ServerEndpoints.Endpoint> assignments = new HashMap<>();
+        for (int user = 1; user <= 100; user++) {
+            ServerEndpoints.Endpoint endpoint = endpoints.acquire(String.valueOf(user), null);
+            endpoints.release(endpoint, false);
+            assignments.put(String.valueOf(user), endpoint);
+        }
+        return assignments;
+    }
+
+    private static List<String> pickedIn100(ServerEndpoints endpoints) {
+        return IntStream.range(0, 100)
+                .mapToObj(i -> {
+                    ServerEndpoints.Endpoint endpoint = endpoints.acquire(null, null);
+                    endpoints.release(endpoint, false);
+                    return endpoint.url();
+                })
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static ServerEndpoints endpoints(Duration ejectionDuration) {
+        BalancerProperties properties = new BalancerProperties();
+        properties.setEjectionConsecutiveFailures(2);
+        properties.setEjectionDuration(ejectionDuration);
+        return new ServerEndpoints(URLS, properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.load;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Генератор данных по образцу bookingRepository_test_data.sql, рассчитанный на миллионы строк.
+ * Пишет напрямую в базу сервера пакетами JDBC и сдвигает последовательности id за
+ * сгенерированные id, чтобы новые записи из нагрузки не конфликтовали с ними.
+ */
+final class DataSeeder {
+    static final String[] WORDS = {"дрель", "отвертка", "пила", "лестница", "палатка", "велосипед",
+            "самокат", "проектор", "гитара", "фотоаппарат", "перфоратор", "лобзик"};
+
+    private static final int BATCH_SIZE = 5_000;
+    /** Размер блока pooled-оптимизатора Hibernate, см. allocationSize у сущностей. */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private final LoadTestConfig config;
+    private final LocalDateTime now;
+
+    DataSeeder(LoadTestConfig config, LocalDateTime now) {
+        this.config = config;
+        this.now = now;
+    }
+
+    void seed(String url, String user, String password) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            long started = System.nanoTime();
+            seedUsers(connection);
+            seedRequests(connection);
+            seedItems(connection);
+            seedBookings(connection);
+            seedBookingSummaries(connection);
+            seedComments(connection);
+            try (Statement statement = connection.createStatement()) {
+                restart(statement, "users", config.users);
+                restart(statement, "requests", config.requests);
+                restart(statement, "items", config.items);
+                restart(statement, "booking", config.bookings);
+                restart(statement, "comments", config.comments);
+            }
+            connection.commit();
+            System.out.printf("Данные сгенерированы за %d с: %d пользователей, %d вещей, %d запросов, "
+                            + "%d бронирований, %d комментариев%n",
+                    (System.nanoTime() - started) / 1_000_000_000L, config.users, config.items,
+                    config.requests, config.bookings, config.comments);
+        }
+    }
+
+    /**
+     * Число бронирований на вещь; половина из них в прошлом, половина в будущем.
+     */
+    int bookingsPerItem() {
+        return (config.bookings + config.items - 1) / config.items;
+    }
+
+    /**
+     * Начало интервалов, гарантированно свободных от сгенерированных бронирований.
+     */
+    LocalDateTime firstFreeStart() {
+        return now.plusHours(bookingsPerItem() * 36L).plusDays(30);
+    }
+
+    private void seedUsers(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into users (id, name, email) values (?, ?, ?)")) {
+            for (long id = 1; id <= config.users; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "User " + id);
+                statement.setString(3, "user" + id + "@load.test");
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void seedRequests(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into requests (id, description, requester_id, created) values (?, ?, ?, ?)")) {
+            for (long id = 1; id <= config.requests; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "Нужна " + WORDS[(int) (id % WORDS.length)] + " на выходные");
+                statement.setLong(3, (id - 1) % config.users + 1);
+                statement.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(id)));
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void seedItems(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into items (id, name, description, user_id, available, request_id) values (?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= config.items; id++) {
+                String word = WORDS[(int) (id % WORDS.length)];
+                statement.setLong(1, id);
+                statement.setString(2, word + " " + id);
+                statement.setString(3, "Хорошая " + word + ", модель " + id % 97);
+                statement.setLong(4, config.ownerOf(id));
+                statement.setBoolean(5, id % 10 != 0);
+                if (config.requests > 0 && id % 4 == 0) {
+                    statement.setLong(6, (id / 4 - 1) % config.requests + 1);
+                } else {
+                    statement.setNull(6, Types.BIGINT);
+                }
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void seedBookings(Connection connection) throws SQLException {
+        LocalDateTime first = now.minusHours(bookingsPerItem() * 36L);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into booking (id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= config.bookings; id++) {
+                long itemId = (id - 1) % config.items + 1;
+                long slot = (id - 1) / config.items;
+                LocalDateTime start = first.plusHours(slot * 72);
+                statement.setLong(1, id);
+                statement.setTimestamp(2, Timestamp.valueOf(start));
+                statement.setTimestamp(3, Timestamp.valueOf(start.plusHours(48)));
+                statement.setLong(4, itemId);
+                statement.setLong(5, config.ownerOf(itemId));
+                statement.setLong(6, config.bookerOf(itemId, id));
+                statement.setString(7, slot % 10 == 7 ? "WAITING" : slot % 10 == 9 ? "REJECTED" : "APPROVED");
+                addBatch(statement, id);
+                if (id % 100_000 == 0) {
+                    connection.commit();
+                    System.out.printf("  бронирований: %d%n", id);
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Сводка последнего и следующего бронирования вещей, как в миграции V10.
+     */
+    private void seedBookingSummaries(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into item_booking_summary "
+                        + "(item_id, last_booking_id, last_start, next_booking_id, next_start, next_status) "
+                        + "select i.id, l.id, l.start_time, n.id, n.start_time, n.status from items i "
+                        + "left join (select b.id, b.item_id, b.start_time, row_number() over "
+                        + "(partition by b.item_id order by b.start_time desc, b.id desc) as rn "
+                        + "from booking b where b.start_time <= ?) l on l.item_id = i.id and l.rn = 1 "
+                        + "left join (select b.id, b.item_id, b.start_time, b.status, row_number() over "
+                        + "(partition by b.item_id order by b.start_time, b.id) as rn "
+                        + "from booking b where b.start_time > ?) n on n.item_id = i.id and n.rn = 1")) {
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            statement.setTimestamp(2, Timestamp.valueOf(now));
+            statement.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    private void seedComments(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into comments (id, item_id, user_id, text, created) values (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= config.comments; id++) {
+                long itemId = (id - 1) % config.items + 1;
+                statement.setLong(1, id);
+                statement.setLong(2, itemId);
+                statement.setLong(3, config.bookerOf(itemId, id));
+                statement.setString(4, "Все отлично, спасибо! " + id);
+                statement.setTimestamp(5, Timestamp.valueOf(now.minusHours(id % 5_000)));
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void addBatch(PreparedStatement statement, long id) throws SQLException {
+        statement.addBatch();
+        if (id % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    private static void restart(Statement statement, String table, long lastId) throws SQLException {
+        statement.execute("alter sequence " + table + "_seq restart with " + (lastId + ID_BLOCK_SIZE));
+    }
+}
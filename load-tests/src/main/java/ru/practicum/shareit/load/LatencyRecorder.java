@@ -0,0 +1,69 @@
+package ru.practicum.shareit.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Задержки запросов по эндпоинтам. Каждый поток пишет в свой экземпляр,
+ * после прогона экземпляры объединяются через {@link #merge}.
+ */
+final class LatencyRecorder {
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, error);
+    }
+
+    void merge(LatencyRecorder other) {
+        other.samples.forEach((endpoint, source) ->
+                samples.computeIfAbsent(endpoint, key -> new Samples()).addAll(source));
+    }
+
+    Map<String, Samples> samples() {
+        return samples;
+    }
+
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private int errors;
+
+        private void add(long value, boolean error) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (error) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i], false);
+            }
+            errors += other.errors;
+        }
+
+        int count() {
+            return size;
+        }
+
+        int errors() {
+            return errors;
+        }
+
+        /**
+         * Перцентиль в миллисекундах; сортирует накопленные значения.
+         */
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            Arrays.sort(nanos, 0, size);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return nanos[Math.max(0, Math.min(index, size - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Параметры прогона, задаются системными свойствами {@code load.*} (см. pom.xml модуля).
+ */
+final class LoadTestConfig {
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL_THREADS = "virtual-threads";
+
+    final Path serverJar;
+    final Path gatewayJar;
+    final Path workDir;
+    final int users;
+    final int items;
+    final int requests;
+    final int bookings;
+    final int comments;
+    final int concurrency;
+    final Duration warmup;
+    final Duration duration;
+    /**
+     * Режимы обработки запросов, прогоняемые по очереди: {@code platform} или {@code virtual-threads}.
+     */
+    final List<String> modes;
+
+    private LoadTestConfig() {
+        serverJar = Path.of(required("load.server-jar"));
+        gatewayJar = Path.of(required("load.gateway-jar"));
+        workDir = Path.of(System.getProperty("load.work-dir", "target/load-test"));
+        users = Integer.getInteger("load.users", 10_000);
+        items = Integer.getInteger("load.items", 100_000);
+        requests = Integer.getInteger("load.requests", 20_000);
+        bookings = Integer.getInteger("load.bookings", 1_000_000);
+        comments = Integer.getInteger("load.comments", 200_000);
+        concurrency = Integer.getInteger("load.concurrency", 32);
+        warmup = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 30));
+        duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 120));
+        modes = List.of(System.getProperty("load.modes", PLATFORM).split(","));
+        if (users < 2 || items < 1) {
+            throw new IllegalArgumentException("Нужно хотя бы два пользователя и одна вещь");
+        }
+        for (String mode : modes) {
+            if (!PLATFORM.equals(mode) && !VIRTUAL_THREADS.equals(mode)) {
+                throw new IllegalArgumentException("Неизвестный режим " + mode);
+            }
+        }
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    /**
+     * Владелец вещи: вещи распределены по пользователям по кругу.
+     */
+    long ownerOf(long itemId) {
+        return (itemId - 1) % users + 1;
+    }
+
+    /**
+     * Пользователь, отличный от владельца вещи.
+     */
+    long bookerOf(long itemId, long seed) {
+        long owner = ownerOf(itemId);
+        long booker = (owner + 1 + seed % (users - 1)) % users;
+        return booker == 0 ? users : booker;
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Не задано системное свойство " + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный прогон: поднимает сервер на файловой H2, заполняет базу, поднимает шлюз,
+ * подает смешанную нагрузку и печатает p50/p99 и запросы в секунду по эндпоинтам.
+ * Результат также сохраняется в {@code <режим>/report.csv} для сравнения между релизами.
+ * Если задано несколько режимов в {@code load.modes}, каждый прогоняется на своей базе,
+ * а итоговая пропускная способность режимов сводится в {@code comparison.csv}.
+ * <p>
+ * Запуск: {@code mvn -P load-test verify -DskipTests [-Dload.bookings=...] [-Dload.modes=platform,virtual-threads]}.
+ */
+public final class LoadTestRunner {
+    private static final String DB_USER = "test";
+    private static final String DB_PASSWORD = "test";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        recreate(config.workDir);
+        Map<String, LatencyRecorder> results = new LinkedHashMap<>();
+        for (String mode : config.modes) {
+            System.out.println("Режим " + mode);
+            results.put(mode, run(config, mode));
+        }
+        if (results.size() > 1) {
+            compare(results, config);
+        }
+    }
+
+    private static LatencyRecorder run(LoadTestConfig config, String mode) throws Exception {
+        Path dir = config.workDir.resolve(mode);
+        recreate(dir);
+        String dbUrl = "jdbc:h2:file:" + dir.resolve("shareit").toAbsolutePath() + ";AUTO_SERVER=TRUE";
+        LocalDateTime now = LocalDateTime.now();
+        DataSeeder seeder = new DataSeeder(config, now);
+        boolean virtualThreads = LoadTestConfig.VIRTUAL_THREADS.equals(mode);
+
+        int serverPort = freePort();
+        try (ServiceProcess server = ServiceProcess.start("server", config.serverJar, serverPort, dir,
+                List.of("--spring.profiles.active=test" + (virtualThreads ? ",virtual-threads" : ""),
+                        "--spring.datasource.url=" + dbUrl,
+                        "--spring.datasource.username=" + DB_USER,
+                        "--spring.datasource.password=" + DB_PASSWORD))) {
+            seeder.seed(dbUrl, DB_USER, DB_PASSWORD);
+            List<String> gatewayArgs = new ArrayList<>(List.of("--shareit-server.url=" + server.baseUri(),
+                    "--logging.level.org.springframework.web.client.RestTemplate=WARN"));
+            if (virtualThreads) {
+                gatewayArgs.add("--spring.profiles.active=virtual-threads");
+            }
+            try (ServiceProcess gateway = ServiceProcess.start("gateway", config.gatewayJar, freePort(), dir,
+                    gatewayArgs)) {
+                System.out.printf("Нагрузка: %d потоков, прогрев %d с, замер %d с%n", config.concurrency,
+                        config.warmup.toSeconds(), config.duration.toSeconds());
+                LatencyRecorder result = new Workload(config, gateway.baseUri(), seeder.firstFreeStart()).run();
+                report(result, config, dir);
+                return result;
+            }
+        }
+    }
+
+    private static void report(LatencyRecorder result, LoadTestConfig config, Path dir) throws IOException {
+        double seconds = config.duration.toMillis() / 1000.0;
+        Path csv = dir.resolve("report.csv");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv))) {
+            writer.println("endpoint,requests,errors,rps,p50_ms,p99_ms");
+            System.out.printf("%-24s %10s %8s %10s %10s %10s%n", "endpoint", "requests", "errors", "rps",
+                    "p50, ms", "p99, ms");
+            for (Map.Entry<String, LatencyRecorder.Samples> entry : result.samples().entrySet()) {
+                LatencyRecorder.Samples samples = entry.getValue();
+                double rps = samples.count() / seconds;
+                double p50 = samples.percentileMillis(50);
+                double p99 = samples.percentileMillis(99);
+                System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f%n", entry.getKey(), samples.count(),
+                        samples.errors(), rps, p50, p99);
+                writer.printf(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f%n", entry.getKey(), samples.count(),
+                        samples.errors(), rps, p50, p99);
+            }
+        }
+        System.out.println("Отчет сохранен в " + csv);
+    }
+
+    /**
+     * Сводит суммарные запросы в секунду и ошибки по режимам.
+     */
+    private static void compare(Map<String, LatencyRecorder> results, LoadTestConfig config) throws IOException {
+        double seconds = config.duration.toMillis() / 1000.0;
+        Path csv = config.workDir.resolve("comparison.csv");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv))) {
+            writer.println("mode,requests,errors,rps");
+            System.out.printf("%-24s %10s %8s %10s%n", "mode", "requests", "errors", "rps");
+            for (Map.Entry<String, LatencyRecorder> entry : results.entrySet()) {
+                long count = 0;
+                long errors = 0;
+                for (LatencyRecorder.Samples samples : entry.getValue().samples().values()) {
+                    count += samples.count();
+                    errors += samples.errors();
+                }
+                System.out.printf("%-24s %10d %8d %10.1f%n", entry.getKey(), count, errors, count / seconds);
+                writer.printf(Locale.ROOT, "%s,%d,%d,%.1f%n", entry.getKey(), count, errors, count / seconds);
+            }
+        }
+        System.out.println("Сравнение режимов сохранено в " + csv);
+    }
+
+    private static void recreate(Path dir) throws IOException {
+        if (Files.exists(dir)) {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(path);
+                }
+            }
+        }
+        Files.createDirectories(dir);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Приложение, запущенное отдельным процессом из собранного jar. Сервер и шлюз содержат
+ * одноименные классы, поэтому в одной JVM их поднять нельзя.
+ */
+final class ServiceProcess implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final String name;
+    private final Process process;
+    private final URI baseUri;
+
+    private ServiceProcess(String name, Process process, URI baseUri) {
+        this.name = name;
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+
+    static ServiceProcess start(String name, Path jar, int port, Path logDir, List<String> args)
+            throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден " + jar + ", сначала выполните mvn package");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--management.endpoints.web.exposure.include=health");
+        command.add("--logging.level.root=WARN");
+        command.addAll(args);
+        Path log = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ServiceProcess service = new ServiceProcess(name, process, URI.create("http://localhost:" + port));
+        service.awaitHealthy(log);
+        return service;
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    private void awaitHealthy(Path log) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/health")).GET().build();
+        Instant deadline = Instant.now().plus(STARTUP_TIMEOUT);
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился при запуске, см. " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.printf("%s запущен на %s%n", name, baseUri);
+                    return;
+                }
+            } catch (IOException e) {
+                // еще не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        close();
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT + ", см. " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Смешанная нагрузка через шлюз: поиск, кабинет владельца, создание и подтверждение
+ * бронирования, лента запросов. Каждый виртуальный пользователь выполняет сценарии
+ * последовательно без пауз; задержки учитываются только после прогрева.
+ */
+final class Workload {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final LoadTestConfig config;
+    private final URI gateway;
+    private final HttpClient client;
+    private final LocalDateTime firstFreeStart;
+    private final AtomicLong freeSlot = new AtomicLong();
+
+    Workload(LoadTestConfig config, URI gateway, LocalDateTime firstFreeStart) {
+        this.config = config;
+        this.gateway = gateway;
+        this.firstFreeStart = firstFreeStart;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    LatencyRecorder run() throws Exception {
+        long measureFrom = System.nanoTime() + config.warmup.toNanos();
+        long deadline = measureFrom + config.duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(config.concurrency);
+        try {
+            List<Future<LatencyRecorder>> workers = new ArrayList<>();
+            for (int i = 0; i < config.concurrency; i++) {
+                workers.add(executor.submit(() -> worker(measureFrom, deadline)));
+            }
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<LatencyRecorder> worker : workers) {
+                total.merge(worker.get());
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LatencyRecorder worker(long measureFrom, long deadline) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Recorder sink = (endpoint, nanos, error) -> {
+                if (System.nanoTime() >= measureFrom) {
+                    recorder.record(endpoint, nanos, error);
+                }
+            };
+            int scenario = random.nextInt(100);
+            if (scenario < 35) {
+                search(sink, random);
+            } else if (scenario < 65) {
+                ownerDashboard(sink, random);
+            } else if (scenario < 80) {
+                createAndApprove(sink, random);
+            } else {
+                requestListing(sink, random);
+            }
+        }
+        return recorder;
+    }
+
+    private void search(Recorder sink, ThreadLocalRandom random) throws InterruptedException {
+        String text = DataSeeder.WORDS[random.nextInt(DataSeeder.WORDS.length)];
+        send(sink, "GET /items/search", get("/items/search?from=0&size=20&text=" + uriEncode(text),
+                randomUser(random)));
+    }
+
+    private void ownerDashboard(Recorder sink, ThreadLocalRandom random) throws InterruptedException {
+        long owner = randomUser(random);
+        send(sink, "GET /items", get("/items", owner));
+        send(sink, "GET /bookings/owner", get("/bookings/owner?state=ALL&from=0&size=20", owner));
+    }
+
+    private void createAndApprove(Recorder sink, ThreadLocalRandom random) throws InterruptedException {
+        long itemId = availableItem(random);
+        LocalDateTime start = firstFreeStart.plusMinutes(freeSlot.getAndIncrement() * 10);
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                itemId, start, start.plusMinutes(5));
+        HttpRequest create = request("/bookings", config.bookerOf(itemId, random.nextLong(Long.MAX_VALUE)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        String created = send(sink, "POST /bookings", create);
+        Matcher matcher = created == null ? null : ID.matcher(created);
+        if (matcher != null && matcher.find()) {
+            HttpRequest approve = request("/bookings/" + matcher.group(1) + "?approved=true", config.ownerOf(itemId))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            send(sink, "PATCH /bookings/{id}", approve);
+        }
+    }
+
+    private void requestListing(Recorder sink, ThreadLocalRandom random) throws InterruptedException {
+        send(sink, "GET /requests/all", get("/requests/all?from=0&size=20", randomUser(random)));
+    }
+
+    private String send(Recorder sink, String endpoint, HttpRequest request) throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean error = response.statusCode() >= 400;
+            sink.record(endpoint, System.nanoTime() - started, error);
+            return error ? null : response.body();
+        } catch (IOException e) {
+            sink.record(endpoint, System.nanoTime() - started, true);
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header(USER_HEADER, String.valueOf(userId));
+    }
+
+    private long randomUser(ThreadLocalRandom random) {
+        return random.nextLong(1, config.users + 1L);
+    }
+
+    private long availableItem(ThreadLocalRandom random) {
+        long itemId = random.nextLong(1, config.items + 1L);
+        return itemId % 10 == 0 ? itemId - 1 : itemId;
+    }
+
+    private static String uriEncode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Recorder {
+        void record(String endpoint, long nanos, boolean error);
+    }
+}
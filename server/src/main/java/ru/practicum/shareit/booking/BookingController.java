@@ -1,14 +1,19 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -28,6 +33,18 @@ public class BookingController {
         return bookingService.addNewBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestBody BookingBatchCreateDto batchDto) {
+        return bookingService.addNewBookings(userId, batchDto.getBookings());
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> patchBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestBody BookingBatchDecisionDto batchDto) {
+        return bookingService.patchBookings(userId, batchDto.getDecisions());
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto patchBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                    @PathVariable Long bookingId,
@@ -45,7 +62,13 @@ public class BookingController {
     public List<BookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
-                                        @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
+                                        @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                        @RequestParam(required = false) Long afterId) {
+        if (afterStart != null || afterId != null) {
+            return bookingService.getListBookingsAfter(userId, state, afterStart, afterId, size);
+        }
         return bookingService.getListBookings(userId, state, from, size);
     }
 
@@ -53,7 +76,13 @@ public class BookingController {
     public List<BookingDto> getBookingsOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @RequestParam(defaultValue = "ALL") String state,
                                              @RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
-                                             @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
+                                             @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                             @RequestParam(required = false) Long afterId) {
+        if (afterStart != null || afterId != null) {
+            return bookingService.getListBookingsOwnerAfter(userId, state, afterStart, afterId, size);
+        }
         return bookingService.getListBookingsOwner(userId, state, from, size);
     }
 }
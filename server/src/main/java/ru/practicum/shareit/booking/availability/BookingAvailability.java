@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Кэш расписаний подтвержденных бронирований по вещам.
+ * Расписание вещи загружается из базы при первом обращении и далее поддерживается
+ * при подтверждении и отклонении броней; окончательную гарантию отсутствия пересечений
+ * в PostgreSQL дает ограничение-исключение {@code booking_approved_no_overlap}.
+ * Изменения расписания привязаны к транзакции: подтверждение занимает интервал сразу и
+ * освобождает его при откате, отклонение освобождает интервал только после фиксации.
+ * Число расписаний ограничено {@code shareit.booking-availability.max-items}; расписание
+ * сбрасывается по журналу {@link ru.practicum.shareit.invalidation.service.CacheInvalidations}, когда брони
+ * вещи меняет другой экземпляр сервера, и в любом случае перечитывается из базы раз в
+ * {@code shareit.booking-availability.refresh-interval}.
+ */
+@Slf4j
+@Component
+public class BookingAvailability {
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, ItemSchedule> schedules;
+
+    public BookingAvailability(BookingRepository bookingRepository,
+                               @Value("${shareit.booking-availability.max-items:10000}") long maxItems,
+                               @Value("${shareit.booking-availability.refresh-interval:1m}") Duration refreshInterval) {
+        this.bookingRepository = bookingRepository;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(refreshInterval)
+                .build();
+    }
+
+    public boolean isBooked(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return schedule(itemId).isBooked(start, end);
+    }
+
+    public LocalDateTime nextFreeStart(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return schedule(itemId).nextFreeStart(start, end);
+    }
+
+    /**
+     * Занимает интервал подтверждаемой брони либо бросает {@link ValidationException},
+     * если вещь на это время уже забронирована.
+     */
+    public void reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        if (!schedule(itemId).tryAdd(bookingId, start, booking.getEnd())) {
+            throw new ValidationException("Вещь уже забронирована на это время");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(itemId, bookingId, start);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Освобождает интервал брони после фиксации текущей транзакции, а вне транзакции — сразу.
+     */
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId, bookingId, start);
+                }
+            });
+        } else {
+            remove(itemId, bookingId, start);
+        }
+    }
+
+    public void evict(Long itemId) {
+        schedules.invalidate(itemId);
+    }
+
+    private void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        ItemSchedule schedule = schedules.getIfPresent(itemId);
+        if (schedule != null) {
+            schedule.remove(bookingId, start);
+        }
+    }
+
+    private ItemSchedule schedule(Long itemId) {
+        ItemSchedule schedule = schedules.getIfPresent(itemId);
+        if (schedule != null) {
+            schedule.removeEndedBefore(LocalDateTime.now());
+            return schedule;
+        }
+        ItemSchedule loaded = new ItemSchedule();
+        List<Booking> bookings = bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                itemId, StatusBooking.APPROVED, LocalDateTime.now());
+        for (Booking booking : bookings) {
+            loaded.load(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        log.debug("Загружено расписание вещи с id {}: {} интервалов", itemId, loaded.size());
+        ItemSchedule existing = schedules.asMap().putIfAbsent(itemId, loaded);
+        return existing == null ? loaded : existing;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Расписание подтвержденных бронирований одной вещи.
+ * Интервалы не пересекаются, поэтому упорядочены одновременно по началу и по концу,
+ * и для проверки пересечения достаточно одного соседа слева от конца запрошенного интервала.
+ */
+class ItemSchedule {
+    private final TreeMap<LocalDateTime, Slot> slots = new TreeMap<>();
+
+    synchronized boolean isBooked(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Slot> before = slots.lowerEntry(end);
+        return before != null && before.getValue().end.isAfter(start);
+    }
+
+    /**
+     * Возвращает ближайшее начало свободного окна той же длительности, не раньше {@code start}.
+     */
+    synchronized LocalDateTime nextFreeStart(LocalDateTime start, LocalDateTime end) {
+        Duration duration = Duration.between(start, end);
+        LocalDateTime candidate = start;
+        Map.Entry<LocalDateTime, Slot> before = slots.lowerEntry(candidate);
+        if (before != null && before.getValue().end.isAfter(candidate)) {
+            candidate = before.getValue().end;
+        }
+        for (Slot slot : slots.tailMap(candidate, true).values()) {
+            if (!slot.start.isBefore(candidate.plus(duration))) {
+                break;
+            }
+            candidate = slot.end;
+        }
+        return candidate;
+    }
+
+    /**
+     * Добавляет интервал, если он не пересекается с уже подтвержденными.
+     */
+    synchronized boolean tryAdd(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        Slot existing = slots.get(start);
+        if (existing != null && existing.bookingId.equals(bookingId)) {
+            return true;
+        }
+        if (isBooked(start, end)) {
+            return false;
+        }
+        slots.put(start, new Slot(bookingId, start, end));
+        return true;
+    }
+
+    synchronized void remove(Long bookingId, LocalDateTime start) {
+        Slot existing = slots.get(start);
+        if (existing != null && existing.bookingId.equals(bookingId)) {
+            slots.remove(start);
+        }
+    }
+
+    /**
+     * Добавляет интервал при загрузке из базы; пересекающиеся исторические записи склеиваются.
+     */
+    synchronized void load(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Slot> before = slots.lowerEntry(end);
+        if (before != null && before.getValue().end.isAfter(start)) {
+            Slot merged = before.getValue();
+            slots.remove(merged.start);
+            LocalDateTime mergedStart = merged.start.isBefore(start) ? merged.start : start;
+            LocalDateTime mergedEnd = merged.end.isAfter(end) ? merged.end : end;
+            slots.put(mergedStart, new Slot(merged.bookingId, mergedStart, mergedEnd));
+            return;
+        }
+        slots.put(start, new Slot(bookingId, start, end));
+    }
+
+    /**
+     * Удаляет закончившиеся интервалы: концы упорядочены так же, как начала,
+     * поэтому достаточно снимать интервалы с начала расписания.
+     */
+    synchronized void removeEndedBefore(LocalDateTime now) {
+        Map.Entry<LocalDateTime, Slot> first = slots.firstEntry();
+        while (first != null && !first.getValue().end.isAfter(now)) {
+            slots.pollFirstEntry();
+            first = slots.firstEntry();
+        }
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    private static final class Slot {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Slot(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Data
+@RequiredArgsConstructor
+@AllArgsConstructor
+public class BookingBatchCreateDto {
+    private List<BookingDtoReqCreate> bookings;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат обработки одного элемента пакетного запроса: HTTP-статус,
+ * который получил бы одиночный запрос, и либо бронь, либо текст ошибки.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBatchResultDto {
+    private Integer index;
+    private Integer status;
+    private BookingDto booking;
+    private String error;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция последнего или следующего бронирования вещи.
+ */
+public interface ItemBookingView {
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getItemId();
+
+    Long getId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    StatusBooking getStatus();
+
+    Long getBookerId();
+
+    /**
+     * {@link #LAST} или {@link #NEXT}.
+     */
+    String getKind();
+}
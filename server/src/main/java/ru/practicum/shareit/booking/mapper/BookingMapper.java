@@ -5,7 +5,9 @@ import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 import ru.practicum.shareit.booking.dto.BookingInItemDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemWithBookingsView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
@@ -27,4 +29,22 @@ public interface BookingMapper {
     @Mapping(target = "bookerId", source = "booking.booker.id")
     BookingInItemDto toBookingInItemDto(Booking booking);
 
+    @Mapping(target = "start", source = "startTime")
+    @Mapping(target = "end", source = "endTime")
+    BookingInItemDto toBookingInItemDto(ItemBookingView view);
+
+    @Mapping(target = "id", source = "lastBookingId")
+    @Mapping(target = "start", source = "lastStart")
+    @Mapping(target = "end", source = "lastEnd")
+    @Mapping(target = "status", source = "lastStatus")
+    @Mapping(target = "bookerId", source = "lastBookerId")
+    BookingInItemDto toLastBookingInItemDto(ItemWithBookingsView view);
+
+    @Mapping(target = "id", source = "nextBookingId")
+    @Mapping(target = "start", source = "nextStart")
+    @Mapping(target = "end", source = "nextEnd")
+    @Mapping(target = "status", source = "nextStatus")
+    @Mapping(target = "bookerId", source = "nextBookerId")
+    BookingInItemDto toNextBookingInItemDto(ItemWithBookingsView view);
+
 }
\ No newline at end of file
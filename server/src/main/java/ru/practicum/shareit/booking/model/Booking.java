@@ -14,13 +14,30 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "booking", schema = "public")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("booker")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "item",
+                        attributeNodes = @NamedAttributeNode(value = "request", subgraph = "request")),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester"))
+        })
 @Data
 @Getter
 @RequiredArgsConstructor
 @AllArgsConstructor
 public class Booking {
+    /**
+     * План загрузки для списков бронирований: вещь с запросом и бронирующий
+     * выбираются одним запросом вместе с бронями, без отдельного select на каждую строку.
+     */
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_time", nullable = false)
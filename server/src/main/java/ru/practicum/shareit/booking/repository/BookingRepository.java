@@ -1,52 +1,199 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
-import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    /**
+     * Условие keyset-пагинации: записи строго после курсора (afterStart, afterId)
+     * в порядке start desc, id desc.
+     */
+    String AFTER_CURSOR = "and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId)) " +
+            "order by b.start desc, b.id desc";
+
     Booking findFirstByItemIdAndStartLessThanEqual(Long itemId, LocalDateTime start, Sort sort);
 
     Booking findFirstByItemIdAndStartAfter(Long itemId, LocalDateTime start, Sort sort);
 
-    List<Booking> findByItemInAndStartLessThanEqual(List<Item> items, LocalDateTime start, Sort sort);
-
-    List<Booking> findByItemInAndStartAfter(List<Item> items, LocalDateTime start, Sort sort);
-
-    Page<Booking> findByBookerId(Long userId, PageRequest pageRequest);
+    List<Booking> findByItemIdAndStatusAndEndAfterOrderByStartAsc(Long itemId, StatusBooking status,
+                                                                  LocalDateTime end);
+
+    /**
+     * Есть ли у вещи другая подтвержденная бронь, пересекающаяся с интервалом.
+     */
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.id <> :bookingId and b.status = :status " +
+            "and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("bookingId") Long bookingId,
+                              @Param("status") StatusBooking status,
+                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Для каждой вещи возвращает не более двух строк: последнее бронирование с началом
+     * не позже {@code now} и ближайшее бронирование с началом после {@code now}. При равном начале
+     * последним считается бронирование с большим id, ближайшим — с меньшим, как в миграции сводки.
+     */
+    @Query(value = "select b.item_id as itemId, b.id as id, b.start_time as startTime, b.end_time as endTime, " +
+            "       b.status as status, b.booker_id as bookerId, b.kind as kind " +
+            "from (select bk.item_id, bk.id, bk.start_time, bk.end_time, bk.status, bk.booker_id, " +
+            "             '" + ItemBookingView.LAST + "' as kind, " +
+            "             row_number() over (partition by bk.item_id order by bk.start_time desc, bk.id desc) as rn " +
+            "      from booking bk " +
+            "      where bk.item_id in (:itemIds) and bk.start_time <= :now " +
+            "      union all " +
+            "      select bk.item_id, bk.id, bk.start_time, bk.end_time, bk.status, bk.booker_id, " +
+            "             '" + ItemBookingView.NEXT + "' as kind, " +
+            "             row_number() over (partition by bk.item_id order by bk.start_time asc, bk.id asc) as rn " +
+            "      from booking bk " +
+            "      where bk.item_id in (:itemIds) and bk.start_time > :now) b " +
+            "where b.rn = 1",
+            nativeQuery = true)
+    List<ItemBookingView> findLastAndNextByItemIds(@Param("itemIds") List<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByBookerId(Long userId, PageRequest pageRequest);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start,
+                                                               LocalDateTime end, PageRequest pageRequest);
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start,
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByBookerIdAndStartIsAfterAndEndIsAfter(Long userId, LocalDateTime start,
                                                               LocalDateTime end, PageRequest pageRequest);
 
-    Page<Booking> findByBookerIdAndStartIsAfterAndEndIsAfter(Long userId, LocalDateTime start,
-                                                             LocalDateTime end, PageRequest pageRequest);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByBookerIdAndStartIsBeforeAndEndIsBefore(Long userId, LocalDateTime start,
+                                                                LocalDateTime end, PageRequest pageRequest);
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsBefore(Long userId, LocalDateTime start,
-                                                               LocalDateTime end, PageRequest pageRequest);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByBookerIdAndStatusIs(Long userId, StatusBooking status, PageRequest pageRequest);
 
-    Page<Booking> findByBookerIdAndStatusIs(Long userId, StatusBooking status, PageRequest pageRequest);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByOwnerId(Long userId, PageRequest pageRequest);
 
-    Page<Booking> findByOwnerId(Long userId, PageRequest pageRequest);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByOwnerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start,
+                                                              LocalDateTime end, PageRequest pageRequest);
 
-    Page<Booking> findByOwnerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start,
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByOwnerIdAndStartIsAfterAndEndIsAfter(Long userId, LocalDateTime start,
                                                              LocalDateTime end, PageRequest pageRequest);
 
-    Page<Booking> findByOwnerIdAndStartIsAfterAndEndIsAfter(Long userId, LocalDateTime start,
-                                                            LocalDateTime end, PageRequest pageRequest);
-
-    Page<Booking> findByOwnerIdAndStartIsBeforeAndEndIsBefore(Long userId, LocalDateTime start,
-                                                              LocalDateTime end, PageRequest pageRequest);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByOwnerIdAndStartIsBeforeAndEndIsBefore(Long userId, LocalDateTime start,
+                                                               LocalDateTime end, PageRequest pageRequest);
 
-    Page<Booking> findByOwnerIdAndStatusIs(Long userId, StatusBooking status, PageRequest pageRequest);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<Booking> findByOwnerIdAndStatusIs(Long userId, StatusBooking status, PageRequest pageRequest);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.booker.id = :userId " + AFTER_CURSOR)
+    Slice<Booking> findByBookerIdAfterCursor(@Param("userId") Long userId,
+                                             @Param("afterStart") LocalDateTime afterStart,
+                                             @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.booker.id = :userId " +
+            "and b.start < :now and b.end > :now " + AFTER_CURSOR)
+    Slice<Booking> findCurrentByBookerIdAfterCursor(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                    @Param("afterStart") LocalDateTime afterStart,
+                                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.booker.id = :userId " +
+            "and b.start > :now and b.end > :now " + AFTER_CURSOR)
+    Slice<Booking> findFutureByBookerIdAfterCursor(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                   @Param("afterStart") LocalDateTime afterStart,
+                                                   @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.booker.id = :userId " +
+            "and b.start < :now and b.end < :now " + AFTER_CURSOR)
+    Slice<Booking> findPastByBookerIdAfterCursor(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                 @Param("afterStart") LocalDateTime afterStart,
+                                                 @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.booker.id = :userId " +
+            "and b.status = :status " + AFTER_CURSOR)
+    Slice<Booking> findByBookerIdAndStatusAfterCursor(@Param("userId") Long userId,
+                                                      @Param("status") StatusBooking status,
+                                                      @Param("afterStart") LocalDateTime afterStart,
+                                                      @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.owner.id = :userId " + AFTER_CURSOR)
+    Slice<Booking> findByOwnerIdAfterCursor(@Param("userId") Long userId,
+                                            @Param("afterStart") LocalDateTime afterStart,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.owner.id = :userId " +
+            "and b.start < :now and b.end > :now " + AFTER_CURSOR)
+    Slice<Booking> findCurrentByOwnerIdAfterCursor(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                   @Param("afterStart") LocalDateTime afterStart,
+                                                   @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.owner.id = :userId " +
+            "and b.start > :now and b.end > :now " + AFTER_CURSOR)
+    Slice<Booking> findFutureByOwnerIdAfterCursor(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                  @Param("afterStart") LocalDateTime afterStart,
+                                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.owner.id = :userId " +
+            "and b.start < :now and b.end < :now " + AFTER_CURSOR)
+    Slice<Booking> findPastByOwnerIdAfterCursor(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                                @Param("afterStart") LocalDateTime afterStart,
+                                                @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    @Query("select b from Booking b where b.owner.id = :userId " +
+            "and b.status = :status " + AFTER_CURSOR)
+    Slice<Booking> findByOwnerIdAndStatusAfterCursor(@Param("userId") Long userId,
+                                                     @Param("status") StatusBooking status,
+                                                     @Param("afterStart") LocalDateTime afterStart,
+                                                     @Param("afterId") Long afterId, Pageable pageable);
 
     List<Booking> findByItem_IdAndBooker_IdAndStatusAndEndIsBefore(
             Long itemId, Long bookerId, StatusBooking status, LocalDateTime end);
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    /**
+     * {@link org.hibernate.LockOptions#SKIP_LOCKED}.
+     */
+    String SKIP_LOCKED = "-2";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemBookingSummary> findByItemIdInOrderByItemIdAsc(Collection<Long> itemIds);
+
+    /**
+     * Строки, у которых начало следующей брони уже наступило, по возрастанию id вещи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemBookingSummary> findByNextStartLessThanEqualOrderByItemIdAsc(LocalDateTime now, Pageable pageable);
+
+    /**
+     * То же, но строки, заблокированные другим экземпляром сервера или записью броней, пропускаются
+     * ({@code FOR UPDATE SKIP LOCKED}): их пересчитает следующий запуск. H2 такого не поддерживает.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select s from ItemBookingSummary s where s.nextStart <= :now order by s.itemId asc")
+    List<ItemBookingSummary> findStartedSkipLocked(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -10,9 +13,19 @@ public interface BookingService {
 
     BookingDto patchBooking(Long userId, Long bookingId, String status);
 
+    List<BookingBatchResultDto> addNewBookings(Long userId, List<BookingDtoReqCreate> bookingDtos);
+
+    List<BookingBatchResultDto> patchBookings(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getByIdAndUserId(Long userId, Long bookingId);
 
     List<BookingDto> getListBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingDto> getListBookingsOwner(Long userId, String state, Integer from, Integer size);
+
+    List<BookingDto> getListBookingsAfter(Long userId, String state, LocalDateTime afterStart,
+                                          Long afterId, Integer size);
+
+    List<BookingDto> getListBookingsOwnerAfter(Long userId, String state, LocalDateTime afterStart,
+                                               Long afterId, Integer size);
 }
@@ -2,46 +2,78 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.StatusException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.invalidation.model.InvalidationRegion;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    /**
+     * Тот же порядок, что и у keyset-запросов: id различает брони с одинаковым началом,
+     * чтобы страницы не теряли и не повторяли строки.
+     */
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+    /**
+     * Предел размера пакета, тот же, что проверяет шлюз: сервер не полагается на то, что запрос прошел через него.
+     */
+    static final int MAX_BATCH_SIZE = 500;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserGuard userGuard;
+    private final BookingAvailability bookingAvailability;
+    private final ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    private final CacheInvalidations cacheInvalidations;
 
     private final BookingMapper bookingMapper;
 
     @Override
+    @Transactional
     public BookingDto addNewBooking(Long userId, BookingDtoReqCreate bookingDto) {
-        User user = userRepository.findById(userId).orElseThrow(() -> {
-            throw new NotFoundException("Пользователь с таким id отсутствует");
-        });
+        userGuard.requireExists(userId);
         Booking booking = bookingMapper.toBooking(bookingDto);
         Item item = validateItem(userId, bookingDto.getItemId());
+        if (bookingAvailability.isBooked(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ValidationException("Вещь уже забронирована на это время");
+        }
         booking.setItem(item);
         booking.setStatus(StatusBooking.WAITING);
         booking.setOwner(item.getUser());
@@ -49,15 +81,15 @@ public class BookingServiceImpl implements BookingService {
             booking.setBooker(userRepository.getById(userId));
         }
         bookingRepository.save(booking);
+        itemBookingSummaryUpdater.apply(List.of(booking));
         log.info("Пользователь с id {} создал бронь с id {}", userId, booking.getId());
         return bookingMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional
     public BookingDto patchBooking(Long userId, Long bookingId, String status) {
-        userRepository.findById(userId).orElseThrow(() -> {
-            throw new NotFoundException("Пользователь с таким id отсутствует");
-        });
+        userGuard.requireExists(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
             throw new NotFoundException("Такой брони не существует");
         });
@@ -70,24 +102,140 @@ public class BookingServiceImpl implements BookingService {
             if (booking.getStatus().equals(StatusBooking.APPROVED)) {
                 throw new ValidationException("Статус уже подтвержден");
             }
+            bookingAvailability.reserve(booking);
             booking.setStatus(StatusBooking.APPROVED);
+            try {
+                bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException e) {
+                throw new ValidationException("Вещь уже забронирована на это время");
+            }
+            cacheInvalidations.publish(InvalidationRegion.ITEM_BOOKINGS, booking.getItem().getId());
         }
         if (status.equalsIgnoreCase("false")) {
             if (booking.getStatus().equals(StatusBooking.REJECTED)) {
                 throw new ValidationException("Статус уже подтвержден");
             }
+            boolean wasApproved = StatusBooking.APPROVED.equals(booking.getStatus());
             booking.setStatus(StatusBooking.REJECTED);
+            bookingRepository.save(booking);
+            if (wasApproved) {
+                bookingAvailability.release(booking);
+                cacheInvalidations.publish(InvalidationRegion.ITEM_BOOKINGS, booking.getItem().getId());
+            }
         }
-        bookingRepository.save(booking);
+        itemBookingSummaryUpdater.apply(List.of(booking));
         log.info("Пользователь с id {} изменил статус брони с id {}", userId, bookingId);
         return bookingMapper.toBookingDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> addNewBookings(Long userId, List<BookingDtoReqCreate> bookingDtos) {
+        validateBatchSize(bookingDtos, "бронирований");
+        userGuard.requireExists(userId);
+        Map<Long, Item> items = itemRepository.findAllById(ids(bookingDtos, BookingDtoReqCreate::getItemId)).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        User booker = userRepository.getById(userId);
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        Booking[] created = new Booking[bookingDtos.size()];
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDtoReqCreate bookingDto = bookingDtos.get(i);
+            try {
+                Item item = checkItem(userId, items.get(bookingDto.getItemId()));
+                Booking booking = bookingMapper.toBooking(bookingDto);
+                if (bookingAvailability.isBooked(item.getId(), booking.getStart(), booking.getEnd())) {
+                    throw new ValidationException("Вещь уже забронирована на это время");
+                }
+                booking.setItem(item);
+                booking.setStatus(StatusBooking.WAITING);
+                booking.setOwner(item.getUser());
+                booking.setBooker(booker);
+                created[i] = booking;
+            } catch (NotFoundException e) {
+                results[i] = failure(i, HttpStatus.NOT_FOUND, e);
+            } catch (ValidationException e) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, e);
+            }
+        }
+        List<Booking> bookings = nonNull(created);
+        bookingRepository.saveAll(bookings);
+        itemBookingSummaryUpdater.apply(bookings);
+        log.info("Пользователь с id {} создал {} броней из {}", userId, bookings.size(), bookingDtos.size());
+        return complete(results, created, HttpStatus.CREATED);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> patchBookings(Long userId, List<BookingDecisionDto> decisions) {
+        validateBatchSize(decisions, "решений");
+        userGuard.requireExists(userId);
+        Map<Long, Booking> bookings = bookingRepository.findAllById(ids(decisions, BookingDecisionDto::getBookingId))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        BookingBatchResultDto[] results = new BookingBatchResultDto[decisions.size()];
+        Booking[] changed = new Booking[decisions.size()];
+        Set<Long> decided = new HashSet<>();
+        List<Booking> released = new ArrayList<>();
+        Set<Long> scheduleChanged = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            try {
+                Booking booking = bookings.get(decision.getBookingId());
+                if (booking == null) {
+                    throw new NotFoundException("Такой брони не существует");
+                }
+                if (!userId.equals(booking.getOwner().getId())) {
+                    throw new NotFoundException("Не возможно изменить статус");
+                }
+                if (!decided.add(booking.getId())) {
+                    throw new ValidationException("Бронь уже указана в этом пакете");
+                }
+                if (Boolean.TRUE.equals(decision.getApproved())) {
+                    if (booking.getStatus().equals(StatusBooking.APPROVED)) {
+                        throw new ValidationException("Статус уже подтвержден");
+                    }
+                    if (bookingRepository.existsOverlapping(booking.getItem().getId(), booking.getId(),
+                            StatusBooking.APPROVED, booking.getStart(), booking.getEnd())) {
+                        throw new ValidationException("Вещь уже забронирована на это время");
+                    }
+                    bookingAvailability.reserve(booking);
+                    booking.setStatus(StatusBooking.APPROVED);
+                    scheduleChanged.add(booking.getItem().getId());
+                } else {
+                    if (booking.getStatus().equals(StatusBooking.REJECTED)) {
+                        throw new ValidationException("Статус уже подтвержден");
+                    }
+                    if (StatusBooking.APPROVED.equals(booking.getStatus())) {
+                        released.add(booking);
+                        scheduleChanged.add(booking.getItem().getId());
+                    }
+                    booking.setStatus(StatusBooking.REJECTED);
+                }
+                changed[i] = booking;
+            } catch (NotFoundException e) {
+                results[i] = failure(i, HttpStatus.NOT_FOUND, e);
+            } catch (ValidationException e) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, e);
+            }
+        }
+        List<Booking> updated = nonNull(changed);
+        // Пересечения с уже подтвержденными бронями отклонены поэлементно выше; сюда ограничение
+        // приводит только при гонке с параллельным подтверждением, и тогда откатывается весь пакет.
+        try {
+            bookingRepository.saveAllAndFlush(updated);
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Вещь уже забронирована на это время");
+        }
+        released.forEach(bookingAvailability::release);
+        scheduleChanged.forEach(itemId -> cacheInvalidations.publish(InvalidationRegion.ITEM_BOOKINGS, itemId));
+        itemBookingSummaryUpdater.apply(updated);
+        log.info("Пользователь с id {} изменил статус {} броней из {}", userId, updated.size(), decisions.size());
+        return complete(results, changed, HttpStatus.OK);
+    }
+
     @Override
     public BookingDto getByIdAndUserId(Long userId, Long bookingId) {
-        userRepository.findById(userId).orElseThrow(() -> {
-            throw new NotFoundException("Такой пользователь отсутствует");
-        });
+        userGuard.requireExists(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
             throw new NotFoundException("Такой брони не существует");
         });
@@ -100,90 +248,184 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getListBookings(Long userId, String state, Integer from, Integer size) {
-        User user = userRepository.findById(userId).orElseThrow(() -> {
-            throw new NotFoundException("Такой id отсутствует");
-        });
+        userGuard.requireExists(userId);
         PageRequest pageRequest = PageRequest.of((from / size), size, SORT_BY_START_DESC);
-        Page<Booking> page = Page.empty();
-        LocalDateTime currentTime = LocalDateTime.now();
-        if (state == null) {
-            state = "ALL";
-        }
-        switch (state.toUpperCase()) {
-            case "ALL":
-                page = bookingRepository.findByBookerId(userId, pageRequest);
-                break;
-            case "CURRENT":
-                page = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                        userId, currentTime, currentTime, pageRequest);
-                break;
-            case "FUTURE":
-                page = bookingRepository.findByBookerIdAndStartIsAfterAndEndIsAfter(
-                        userId, currentTime, currentTime, pageRequest);
-                break;
-            case "PAST":
-                page = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsBefore(
-                        userId, currentTime, currentTime, pageRequest);
-                break;
-            case "WAITING":
-                page = bookingRepository.findByBookerIdAndStatusIs(userId, StatusBooking.WAITING, pageRequest);
-                break;
-            case "REJECTED":
-                page = bookingRepository.findByBookerIdAndStatusIs(userId, StatusBooking.REJECTED, pageRequest);
-                break;
-            default:
-                throw new StatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        return bookingMapper.toBookingDtoList(page.getContent());
+        return findByState(state, new BookingListQueries() {
+            @Override
+            public Slice<Booking> all() {
+                return bookingRepository.findByBookerId(userId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> current(LocalDateTime now) {
+                return bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, now, now, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> future(LocalDateTime now) {
+                return bookingRepository.findByBookerIdAndStartIsAfterAndEndIsAfter(userId, now, now, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> past(LocalDateTime now) {
+                return bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsBefore(userId, now, now, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> withStatus(StatusBooking status) {
+                return bookingRepository.findByBookerIdAndStatusIs(userId, status, pageRequest);
+            }
+        });
     }
 
     @Override
     public List<BookingDto> getListBookingsOwner(Long userId, String state, Integer from, Integer size) {
-        User user = userRepository.findById(userId).orElseThrow(() -> {
-            throw new NotFoundException("Такой id отсутствует");
+        userGuard.requireExists(userId);
+        PageRequest pageRequest = PageRequest.of((from / size), size, SORT_BY_START_DESC);
+        return findByState(state, new BookingListQueries() {
+            @Override
+            public Slice<Booking> all() {
+                return bookingRepository.findByOwnerId(userId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> current(LocalDateTime now) {
+                return bookingRepository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(userId, now, now, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> future(LocalDateTime now) {
+                return bookingRepository.findByOwnerIdAndStartIsAfterAndEndIsAfter(userId, now, now, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> past(LocalDateTime now) {
+                return bookingRepository.findByOwnerIdAndStartIsBeforeAndEndIsBefore(userId, now, now, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> withStatus(StatusBooking status) {
+                return bookingRepository.findByOwnerIdAndStatusIs(userId, status, pageRequest);
+            }
+        });
+    }
+
+    @Override
+    public List<BookingDto> getListBookingsAfter(Long userId, String state, LocalDateTime afterStart,
+                                                 Long afterId, Integer size) {
+        userGuard.requireExists(userId);
+        validateCursor(afterStart, afterId);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        return findByState(state, new BookingListQueries() {
+            @Override
+            public Slice<Booking> all() {
+                return bookingRepository.findByBookerIdAfterCursor(userId, afterStart, afterId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> current(LocalDateTime now) {
+                return bookingRepository.findCurrentByBookerIdAfterCursor(
+                        userId, now, afterStart, afterId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> future(LocalDateTime now) {
+                return bookingRepository.findFutureByBookerIdAfterCursor(
+                        userId, now, afterStart, afterId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> past(LocalDateTime now) {
+                return bookingRepository.findPastByBookerIdAfterCursor(userId, now, afterStart, afterId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> withStatus(StatusBooking status) {
+                return bookingRepository.findByBookerIdAndStatusAfterCursor(
+                        userId, status, afterStart, afterId, pageRequest);
+            }
         });
+    }
 
-        PageRequest pageRequest = PageRequest.of((from / size), size, SORT_BY_START_DESC);
-        Page<Booking> page = Page.empty();
+    @Override
+    public List<BookingDto> getListBookingsOwnerAfter(Long userId, String state, LocalDateTime afterStart,
+                                                      Long afterId, Integer size) {
+        userGuard.requireExists(userId);
+        validateCursor(afterStart, afterId);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        return findByState(state, new BookingListQueries() {
+            @Override
+            public Slice<Booking> all() {
+                return bookingRepository.findByOwnerIdAfterCursor(userId, afterStart, afterId, pageRequest);
+            }
 
-        if (state == null) {
-            state = "ALL";
-        }
-        LocalDateTime currentTime = LocalDateTime.now();
+            @Override
+            public Slice<Booking> current(LocalDateTime now) {
+                return bookingRepository.findCurrentByOwnerIdAfterCursor(
+                        userId, now, afterStart, afterId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> future(LocalDateTime now) {
+                return bookingRepository.findFutureByOwnerIdAfterCursor(
+                        userId, now, afterStart, afterId, pageRequest);
+            }
+
+            @Override
+            public Slice<Booking> past(LocalDateTime now) {
+                return bookingRepository.findPastByOwnerIdAfterCursor(userId, now, afterStart, afterId, pageRequest);
+            }
 
-        switch (state.toUpperCase()) {
+            @Override
+            public Slice<Booking> withStatus(StatusBooking status) {
+                return bookingRepository.findByOwnerIdAndStatusAfterCursor(
+                        userId, status, afterStart, afterId, pageRequest);
+            }
+        });
+    }
+
+    private List<BookingDto> findByState(String state, BookingListQueries queries) {
+        LocalDateTime currentTime = LocalDateTime.now();
+        Slice<Booking> page;
+        switch (state == null ? "ALL" : state.toUpperCase()) {
             case "ALL":
-                page = bookingRepository.findByOwnerId(userId, pageRequest);
+                page = queries.all();
                 break;
             case "CURRENT":
-                page = bookingRepository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(
-                        userId, currentTime, currentTime, pageRequest);
+                page = queries.current(currentTime);
                 break;
             case "FUTURE":
-                page = bookingRepository.findByOwnerIdAndStartIsAfterAndEndIsAfter(
-                        userId, currentTime, currentTime, pageRequest);
+                page = queries.future(currentTime);
                 break;
             case "PAST":
-                page = bookingRepository.findByOwnerIdAndStartIsBeforeAndEndIsBefore(
-                        userId, currentTime, currentTime, pageRequest);
+                page = queries.past(currentTime);
                 break;
             case "WAITING":
-                page = bookingRepository.findByOwnerIdAndStatusIs(userId, StatusBooking.WAITING, pageRequest);
+                page = queries.withStatus(StatusBooking.WAITING);
                 break;
             case "REJECTED":
-                page = bookingRepository.findByOwnerIdAndStatusIs(userId, StatusBooking.REJECTED, pageRequest);
+                page = queries.withStatus(StatusBooking.REJECTED);
                 break;
             default:
                 throw new StatusException("Unknown state: UNSUPPORTED_STATUS");
         }
-
         return bookingMapper.toBookingDtoList(page.getContent());
     }
 
+    private static void validateCursor(LocalDateTime afterStart, Long afterId) {
+        if (afterStart == null || afterId == null) {
+            throw new ValidationException("Курсор задается парой параметров afterStart и afterId");
+        }
+    }
+
     private Item validateItem(Long userId, Long itemId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
+        return checkItem(userId, itemRepository.findById(itemId).orElse(null));
+    }
+
+    private Item checkItem(Long userId, Item item) {
+        if (item == null) {
             throw new NotFoundException("Предмет с таким id отсутствует");
-        });
+        }
         if (!item.getAvailable()) {
             throw new ValidationException("Эта вещь сейчас не доступна");
         }
@@ -193,4 +435,68 @@ public class BookingServiceImpl implements BookingService {
 
         return item;
     }
+
+    private static void validateBatchSize(List<?> batch, String elements) {
+        if (batch == null || batch.isEmpty()) {
+            throw new ValidationException("Пакет " + elements + " не может быть пустым");
+        }
+        if (batch.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("В пакете не может быть больше " + MAX_BATCH_SIZE + " " + elements);
+        }
+    }
+
+    private static <T> Set<Long> ids(List<T> elements, Function<T, Long> id) {
+        return elements.stream()
+                .map(id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static List<Booking> nonNull(Booking[] bookings) {
+        List<Booking> result = new ArrayList<>(bookings.length);
+        for (Booking booking : bookings) {
+            if (booking != null) {
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+
+    private List<BookingBatchResultDto> complete(BookingBatchResultDto[] results, Booking[] bookings,
+                                                 HttpStatus status) {
+        for (int i = 0; i < results.length; i++) {
+            if (bookings[i] != null) {
+                results[i] = BookingBatchResultDto.builder()
+                        .index(i)
+                        .status(status.value())
+                        .booking(bookingMapper.toBookingDto(bookings[i]))
+                        .build();
+            }
+        }
+        return List.of(results);
+    }
+
+    private static BookingBatchResultDto failure(int index, HttpStatus status, RuntimeException e) {
+        return BookingBatchResultDto.builder()
+                .index(index)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
+    }
+
+    /**
+     * Запросы списка броней для одной роли пользователя и одного способа пагинации;
+     * выбор запроса по параметру state общий для всех четырех списков.
+     */
+    private interface BookingListQueries {
+        Slice<Booking> all();
+
+        Slice<Booking> current(LocalDateTime now);
+
+        Slice<Booking> future(LocalDateTime now);
+
+        Slice<Booking> past(LocalDateTime now);
+
+        Slice<Booking> withStatus(StatusBooking status);
+    }
 }
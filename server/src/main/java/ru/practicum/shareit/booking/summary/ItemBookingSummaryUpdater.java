@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Поддерживает сводку {@link ItemBookingSummary}: записанные брони применяются к строке вещи
+ * в той же транзакции под блокировкой строки, а строки, у которых следующая бронь уже началась,
+ * периодически пересчитываются по таблице броней.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryUpdater {
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Value("${shareit.booking-summary.skip-locked:true}")
+    private boolean skipLocked;
+
+    /**
+     * Пустая строка для новой вещи, чтобы запись броней только обновляла существующую строку.
+     */
+    @Transactional
+    public void create(Long itemId) {
+        summaryRepository.save(new ItemBookingSummary(itemId));
+    }
+
+    /**
+     * Учитывает созданные брони и смену статуса. Строки вещей блокируются по возрастанию id,
+     * поэтому параллельные записи по одной вещи применяются по очереди и не теряют друг друга.
+     */
+    @Transactional
+    public void apply(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> itemIds = bookings.stream().map(booking -> booking.getItem().getId()).collect(toSet());
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findByItemIdInOrderByItemIdAsc(itemIds).stream()
+                .collect(toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<ItemBookingSummary> created = new ArrayList<>();
+        for (Booking booking : bookings) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(booking.getItem().getId(), itemId -> {
+                ItemBookingSummary missing = new ItemBookingSummary(itemId);
+                created.add(missing);
+                return missing;
+            });
+            apply(summary, booking, now);
+        }
+        summaryRepository.saveAll(created);
+    }
+
+    /**
+     * Переносит наступившие следующие брони в последние и находит новые следующие.
+     * За один запуск обрабатывается не больше {@value #REFRESH_BATCH_SIZE} вещей. При
+     * {@code shareit.booking-summary.skip-locked} экземпляры сервера делят строки между собой,
+     * пропуская заблокированные, а не ждут друг друга.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT30S}",
+            initialDelayString = "${shareit.booking-summary.refresh-interval:PT30S}")
+    @Transactional
+    public void refreshStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, REFRESH_BATCH_SIZE);
+        List<ItemBookingSummary> started = skipLocked
+                ? summaryRepository.findStartedSkipLocked(now, page)
+                : summaryRepository.findByNextStartLessThanEqualOrderByItemIdAsc(now, page);
+        if (started.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = started.stream().map(ItemBookingSummary::getItemId).collect(toList());
+        List<ItemBookingView> views = bookingRepository.findLastAndNextByItemIds(itemIds, now);
+        Map<Long, ItemBookingSummary> summaries = started.stream()
+                .collect(toMap(ItemBookingSummary::getItemId, Function.identity()));
+        started.forEach(ItemBookingSummaryUpdater::clear);
+        for (ItemBookingView view : views) {
+            ItemBookingSummary summary = summaries.get(view.getItemId());
+            if (ItemBookingView.LAST.equals(view.getKind())) {
+                summary.setLastBookingId(view.getId());
+                summary.setLastStart(view.getStartTime());
+            } else {
+                summary.setNextBookingId(view.getId());
+                summary.setNextStart(view.getStartTime());
+                summary.setNextStatus(view.getStatus());
+            }
+        }
+        log.debug("Пересчитана сводка бронирований для {} вещей", started.size());
+    }
+
+    /**
+     * Если следующая бронь строки уже началась, строка остается с ней до пересчета:
+     * {@link #refreshStarted} выбирает такие строки по {@code next_start}. Равное начало разрешается
+     * по id так же, как в {@link BookingRepository#findLastAndNextByItemIds}.
+     */
+    static void apply(ItemBookingSummary summary, Booking booking, LocalDateTime now) {
+        if (booking.getId().equals(summary.getNextBookingId())) {
+            summary.setNextStatus(booking.getStatus());
+        }
+        if (!booking.getStart().isAfter(now)) {
+            if (summary.getLastStart() == null || booking.getStart().isAfter(summary.getLastStart())
+                    || (booking.getStart().equals(summary.getLastStart())
+                    && booking.getId() > summary.getLastBookingId())) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastStart(booking.getStart());
+            }
+        } else if (summary.getNextStart() == null || booking.getStart().isBefore(summary.getNextStart())
+                || (booking.getStart().equals(summary.getNextStart())
+                && booking.getId() < summary.getNextBookingId())) {
+            summary.setNextBookingId(booking.getId());
+            summary.setNextStart(booking.getStart());
+            summary.setNextStatus(booking.getStatus());
+        }
+    }
+
+    private static void clear(ItemBookingSummary summary) {
+        summary.setLastBookingId(null);
+        summary.setLastStart(null);
+        summary.setNextBookingId(null);
+        summary.setNextStart(null);
+        summary.setNextStatus(null);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Основной пул настраивается как обычно через {@code spring.datasource.*}, пул реплики — через
+ * {@code shareit.datasource.replica.*} (свойства Hikari, например {@code jdbc-url}, {@code username},
+ * {@code password}). Без реплики read-only транзакции идут в основной пул. После пишущей транзакции
+ * пользователь читает из основного пула в течение {@code shareit.datasource.read-your-writes}.
+ * {@link LazyConnectionDataSourceProxy} берет соединение при первом запросе, когда признак
+ * read-only транзакции уже выставлен, иначе маршрутизация видела бы состояние до начала транзакции.
+ */
+@Slf4j
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty("shareit.datasource.replica.jdbc-url")
+    @ConfigurationProperties("shareit.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${shareit.datasource.read-your-writes:5s}") Duration window) {
+        return new ReadYourWrites(window);
+    }
+
+    @Bean
+    public ReadOnlyRouting readOnlyRouting(ReadYourWrites readYourWrites,
+                                           @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource) {
+        return new ReadOnlyRouting(readYourWrites, replicaDataSource.getIfAvailable() != null);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWrites readYourWrites) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWrites));
+        registration.setName("readYourWritesFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * При заданном {@code shareit.virtual-threads.connection-permits} (профиль {@code virtual-threads})
+     * маршрутизация оборачивается в {@link ConnectionLimitingDataSource}: разрешения общие для основного
+     * пула и реплики.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                 ReadOnlyRouting readOnlyRouting,
+                                 ReadYourWrites readYourWrites,
+                                 @Value("${shareit.virtual-threads.connection-permits:0}") int connectionPermits,
+                                 @Value("${shareit.virtual-threads.connection-acquire-timeout:30s}")
+                                 Duration connectionAcquireTimeout) {
+        DataSource replica = replicaDataSource.getIfAvailable(() -> primaryDataSource);
+        if (replica != primaryDataSource) {
+            log.info("Read-only транзакции направляются в пул реплики");
+        }
+        DataSource routing = new ReadOnlyRoutingDataSource(primaryDataSource, replica, readOnlyRouting, readYourWrites);
+        if (connectionPermits > 0) {
+            log.info("Доступ к пулам соединений ограничен {} разрешениями", connectionPermits);
+            routing = new ConnectionLimitingDataSource(routing, connectionPermits, connectionAcquireTimeout);
+        }
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.config.ReadOnlyRoutingDataSource.Route;
+
+/**
+ * Определяет пул для текущей транзакции. Кроме маршрутизации соединений используется кэшами:
+ * они сохраняют только то, что прочитано из основного пула, а не с отстающей реплики.
+ */
+public class ReadOnlyRouting {
+    private final ReadYourWrites readYourWrites;
+    private final boolean replicaEnabled;
+
+    public ReadOnlyRouting(ReadYourWrites readYourWrites, boolean replicaEnabled) {
+        this.readYourWrites = readYourWrites;
+        this.replicaEnabled = replicaEnabled;
+    }
+
+    public Route currentRoute() {
+        if (!replicaEnabled
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || readYourWrites.isCurrentUserPinned()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    public boolean readsFromPrimary() {
+        return currentRoute() == Route.PRIMARY;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Выбирает пул по признаку read-only текущей транзакции: чтение уходит на реплику,
+ * запись и все, что выполняется вне транзакции, — на основной пул. После фиксации пишущей транзакции
+ * пользователь запроса закрепляется за основным пулом, см. {@link ReadYourWrites}.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadOnlyRouting routing;
+    private final ReadYourWrites readYourWrites;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica,
+                                     ReadOnlyRouting routing, ReadYourWrites readYourWrites) {
+        this.routing = routing;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.pinCurrentUserAfterCommit();
+        }
+        return routing.currentRoute();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Закрепляет пользователя за основным пулом на заданное время после его изменений, чтобы
+ * следующие чтения не ушли на реплику, которая еще не получила эти изменения.
+ * Пользователь текущего запроса хранится в потоке, пока запрос обрабатывается. Закрепление действует
+ * в пределах экземпляра сервера: шлюз направляет запросы одного пользователя на один экземпляр.
+ */
+public class ReadYourWrites {
+    private static final long MAX_PINNED_USERS = 100_000L;
+
+    private final ThreadLocal<Long> currentUser = new ThreadLocal<>();
+    private final Cache<Long, Boolean> pinnedUsers;
+
+    public ReadYourWrites(Duration window) {
+        pinnedUsers = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAX_PINNED_USERS)
+                .build();
+    }
+
+    public void bind(Long userId) {
+        currentUser.set(userId);
+    }
+
+    public void clear() {
+        currentUser.remove();
+    }
+
+    /**
+     * Закрепляет пользователя после фиксации текущей транзакции: окно отсчитывается от момента,
+     * с которого реплика может отставать, а откат ничего не закрепляет.
+     */
+    public void pinCurrentUserAfterCommit() {
+        Long userId = currentUser.get();
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pinnedUsers.put(userId, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pinnedUsers.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    public boolean isCurrentUserPinned() {
+        Long userId = currentUser.get();
+        return userId != null && pinnedUsers.getIfPresent(userId) != null;
+    }
+
+    Long currentUser() {
+        return currentUser.get();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи сервера, например пересчет сводки бронирований вещей
+ * ({@code shareit.booking-summary.refresh-interval}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.invalidation.model;
+
+import lombok.*;
+import org.hibernate.Hibernate;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Запись журнала изменений, по которому экземпляры сервера сбрасывают свои локальные кэши.
+ */
+@Entity
+@Table(name = "cache_invalidation", schema = "public")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class CacheInvalidation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cache_invalidation_seq")
+    @SequenceGenerator(name = "cache_invalidation_seq", sequenceName = "cache_invalidation_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "region")
+    @Enumerated(EnumType.STRING)
+    private InvalidationRegion region;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    public CacheInvalidation(InvalidationRegion region, Long entityId, LocalDateTime created) {
+        this.region = region;
+        this.entityId = entityId;
+        this.created = created;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        CacheInvalidation invalidation = (CacheInvalidation) o;
+        return id != null && Objects.equals(id, invalidation.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
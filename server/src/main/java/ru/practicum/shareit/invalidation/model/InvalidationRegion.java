@@ -0,0 +1,10 @@
+package ru.practicum.shareit.invalidation.model;
+
+/**
+ * Что изменилось: пользователь, вещь или подтвержденные брони вещи.
+ */
+public enum InvalidationRegion {
+    USER,
+    ITEM,
+    ITEM_BOOKINGS
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.invalidation.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.invalidation.model.CacheInvalidation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    List<CacheInvalidation> findByCreatedAfterOrderByIdAsc(LocalDateTime since);
+
+    @Modifying
+    @Query("delete from CacheInvalidation i where i.created < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.invalidation.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.invalidation.model.CacheInvalidation;
+import ru.practicum.shareit.invalidation.model.InvalidationRegion;
+import ru.practicum.shareit.invalidation.repository.CacheInvalidationRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сброс локальных кэшей на всех экземплярах сервера. Изменение пишется в журнал {@code cache_invalidation}
+ * в той же транзакции, что и само изменение, поэтому другие экземпляры видят запись только после фиксации.
+ * Каждый экземпляр раз в {@code shareit.cache-invalidation.poll-interval} читает журнал и сбрасывает у себя
+ * кэши пользователей и вещей, расписание броней вещи и ее строку в поисковом индексе.
+ * Журнал перечитывается с запасом {@code shareit.cache-invalidation.overlap}: транзакция, получившая время
+ * записи до опроса, может зафиксироваться после него. Уже примененные записи повторно не применяются.
+ */
+@Slf4j
+@Component
+public class CacheInvalidations {
+    private final CacheInvalidationRepository invalidationRepository;
+    private final CacheManager cacheManager;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingAvailability bookingAvailability;
+    private final Duration overlap;
+    private final Duration retention;
+
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+    private LocalDateTime lastPoll = LocalDateTime.now();
+
+    public CacheInvalidations(CacheInvalidationRepository invalidationRepository,
+                              CacheManager cacheManager,
+                              ItemSearchIndex itemSearchIndex,
+                              BookingAvailability bookingAvailability,
+                              @Value("${shareit.cache-invalidation.overlap:PT1M}") Duration overlap,
+                              @Value("${shareit.cache-invalidation.retention:PT1H}") Duration retention) {
+        this.invalidationRepository = invalidationRepository;
+        this.cacheManager = cacheManager;
+        this.itemSearchIndex = itemSearchIndex;
+        this.bookingAvailability = bookingAvailability;
+        this.overlap = overlap;
+        this.retention = retention;
+    }
+
+    /**
+     * Записывает изменение в журнал в текущей транзакции.
+     */
+    @Transactional
+    public void publish(InvalidationRegion region, Long entityId) {
+        invalidationRepository.save(new CacheInvalidation(region, entityId, LocalDateTime.now()));
+    }
+
+    /**
+     * Применяет новые записи журнала. Читает из основного пула, чтобы не пропустить записи,
+     * которые еще не дошли до реплики.
+     */
+    @Scheduled(fixedDelayString = "${shareit.cache-invalidation.poll-interval:PT1S}")
+    @Transactional
+    public synchronized void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastPoll.minus(overlap);
+        List<CacheInvalidation> invalidations = invalidationRepository.findByCreatedAfterOrderByIdAsc(since);
+        for (CacheInvalidation invalidation : invalidations) {
+            if (applied.putIfAbsent(invalidation.getId(), invalidation.getCreated()) == null) {
+                apply(invalidation.getRegion(), invalidation.getEntityId());
+            }
+        }
+        applied.values().removeIf(created -> created.isBefore(since));
+        lastPoll = now;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.cache-invalidation.retention:PT1H}",
+            initialDelayString = "${shareit.cache-invalidation.retention:PT1H}")
+    @Transactional
+    public void purge() {
+        int deleted = invalidationRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        log.debug("Удалено {} устаревших записей журнала сброса кэшей", deleted);
+    }
+
+    private void apply(InvalidationRegion region, Long entityId) {
+        switch (region) {
+            case USER:
+                evict(CacheConfig.USERS, entityId);
+                evict(CacheConfig.USER_EXISTS, entityId);
+                break;
+            case ITEM:
+                evict(CacheConfig.ITEMS, entityId);
+                itemSearchIndex.refresh(entityId);
+                bookingAvailability.evict(entityId);
+                break;
+            case ITEM_BOOKINGS:
+                bookingAvailability.evict(entityId);
+                break;
+            default:
+                throw new IllegalStateException("Неизвестный тип записи журнала: " + region);
+        }
+    }
+
+    private void evict(String cacheName, Long key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
 import ru.practicum.shareit.item.dto.ItemDtoReqPatch;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -45,16 +53,37 @@ public class ItemController {
         return itemService.patchItem(userId, itemDto, itemId);
     }
 
+    /**
+     * ETag считается по полям вещи вместе с бронированиями и отзывами, без сериализации ответа:
+     * на совпавший {@code If-None-Match} отдается 304 без тела.
+     */
     @GetMapping("/{itemId}")
     public ItemDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                           @PathVariable Long itemId) {
-        return itemService.getByIdAndUserId(userId, itemId);
+                           @PathVariable Long itemId,
+                           WebRequest request) {
+        ItemDto item = itemService.getByIdAndUserId(userId, itemId);
+        if (request.checkNotModified(etag(item))) {
+            return null;
+        }
+        return item;
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime start,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime end) {
+        return itemService.getAvailability(userId, itemId, start, end);
     }
 
     @GetMapping("/search")
     public List<ItemDto> getByDescription(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @RequestParam String text) {
-        return itemService.searchItemsByText(userId, text);
+                                          @RequestParam String text,
+                                          @RequestParam(defaultValue = "0", required = false) @Min(0) Integer from,
+                                          @RequestParam(defaultValue = "10", required = false) @Min(1) @Max(100) Integer size) {
+        return itemService.searchItemsByText(userId, text, from, size);
     }
 
 
@@ -71,4 +100,11 @@ public class ItemController {
         return itemService.addNewComment(userId, commentDto, itemId);
     }
 
+    /**
+     * {@code toString()} от Lombok перечисляет все поля, включая вложенные бронирования и отзывы.
+     */
+    private static String etag(ItemDto item) {
+        return "\"" + DigestUtils.md5DigestAsHex(item.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * Неизменяемая копия вещи для кэша: поля {@link ItemDto} и id владельца, без ссылок на сущности.
+ */
+@Value
+public class ItemSnapshot {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    Long requestId;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.booking.model.StatusBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция вещи владельца с последним и следующим бронированием из сводки {@code item_booking_summary}.
+ */
+public interface ItemWithBookingsView extends ItemView {
+    Long getLastBookingId();
+
+    LocalDateTime getLastStart();
+
+    LocalDateTime getLastEnd();
+
+    StatusBooking getLastStatus();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+
+    StatusBooking getNextStatus();
+
+    Long getNextBookerId();
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
@@ -19,4 +20,8 @@ public interface CommentMapper {
     CommentDto toCommentDto(Comment comment);
 
     List<CommentDto> toDtoList(List<Comment> comments);
+
+    CommentDto toCommentDto(CommentView view);
+
+    List<CommentDto> viewsToDtoList(List<CommentView> views);
 }
@@ -1,17 +1,23 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemIn(List<Item> items, Sort sort);
+    @Query("select c.id as id, c.item.id as itemId, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a " +
+            "where c.item.id in :itemIds " +
+            "order by c.created desc")
+    List<CommentView> findViewsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 
     List<Comment> findAllByItemId(Long itemId);
 }
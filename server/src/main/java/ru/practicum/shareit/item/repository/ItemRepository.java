@@ -1,25 +1,85 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemWithBookingsView;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.item.search.ItemSearchView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String ITEM_VIEW = "select i.id as id, i.name as name, i.description as description, " +
+            "i.available as available, r.id as requestId " +
+            "from Item i left join i.request r ";
+    String ITEM_WITH_BOOKINGS_VIEW = "select i.id as id, i.name as name, i.description as description, " +
+            "i.available as available, r.id as requestId, " +
+            "lb.id as lastBookingId, lb.start as lastStart, lb.end as lastEnd, lb.status as lastStatus, " +
+            "lb.booker.id as lastBookerId, " +
+            "nb.id as nextBookingId, nb.start as nextStart, nb.end as nextEnd, nb.status as nextStatus, " +
+            "nb.booker.id as nextBookerId " +
+            "from Item i left join i.request r " +
+            "left join ItemBookingSummary s on s.itemId = i.id " +
+            "left join Booking lb on lb.id = s.lastBookingId " +
+            "left join Booking nb on nb.id = s.nextBookingId ";
+
+    /**
+     * Копия вещи для чтения по id. В кэш попадает только прочитанное из основного пула.
+     */
+    @Cacheable(cacheNames = CacheConfig.ITEMS, unless = "#result == null or !@readOnlyRouting.readsFromPrimary()")
+    @Query("select new ru.practicum.shareit.item.dto.ItemSnapshot(i.id, i.name, i.description, i.available, " +
+            "i.user.id, r.id) " +
+            "from Item i left join i.request r where i.id = :itemId")
+    Optional<ItemSnapshot> findSnapshotById(@Param("itemId") Long itemId);
 
     @Query(" select i from Item i " +
-            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "   or upper(i.description) like upper(concat('%', ?1, '%')))" +
-            "and i.available = true")
-    List<Item> search(String text);
+            "where (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "   or upper(i.description) like upper(concat('%', :text, '%')))" +
+            "and i.available = true " +
+            "order by i.id")
+    List<Item> search(@Param("text") String text, Pageable pageable);
+
+    /**
+     * Поиск для PostgreSQL: совпадение по tsvector (GIN-индекс) или по подстроке
+     * (триграммные GIN-индексы), сортировка по релевантности.
+     */
+    @Query(value = "select i.* from items i " +
+            "where i.available = true " +
+            "  and (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "       or i.name ilike concat('%', :text, '%') " +
+            "       or i.description ilike concat('%', :text, '%')) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('simple', :text)) desc, " +
+            "         greatest(similarity(i.name, :text), similarity(i.description, :text)) desc, " +
+            "         i.id",
+            nativeQuery = true)
+    List<Item> searchFullText(@Param("text") String text, Pageable pageable);
+
+    @Query(ITEM_VIEW + "where i.user.id = :userId order by i.id")
+    List<ItemView> findViewsByUserId(@Param("userId") Long userId);
 
-    List<Item> findAllByUserIdOrderByIdAsc(Long userId);
+    /**
+     * Вещи владельца с последним и следующим бронированием: сводка и брони присоединяются по первичным ключам.
+     */
+    @Query(ITEM_WITH_BOOKINGS_VIEW + "where i.user.id = :userId order by i.id")
+    List<ItemWithBookingsView> findViewsWithBookingsByUserId(@Param("userId") Long userId);
+
+    @Query(ITEM_WITH_BOOKINGS_VIEW + "where i.id = :itemId")
+    Optional<ItemWithBookingsView> findViewWithBookingsById(@Param("itemId") Long itemId);
 
     List<Item> findAllByRequestId(Long requestId);
 
-    List<Item> findByRequestIn(List<Request> requests);
+    @Query(ITEM_VIEW + "where r.id in :requestIds")
+    List<ItemView> findViewsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    List<ItemSearchView> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Компактное множество id в духе roaring bitmap: старшие биты id задают контейнер,
+ * младшие 16 бит хранятся в отсортированном char[] или, когда контейнер заполняется,
+ * в битовой карте на 65536 значений. Потокобезопасность обеспечивает вызывающий код.
+ */
+final class IdBitmap {
+    private static final int ARRAY_CONTAINER_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private long[] keys = new long[1];
+    private Container[] containers = new Container[1];
+    private int size;
+    private int cardinality;
+
+    boolean add(long id) {
+        long key = id >>> 16;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key);
+        }
+        boolean added = containers[index].add((char) id);
+        if (added) {
+            cardinality++;
+        }
+        return added;
+    }
+
+    boolean remove(long id) {
+        int index = Arrays.binarySearch(keys, 0, size, id >>> 16);
+        if (index < 0 || !containers[index].remove((char) id)) {
+            return false;
+        }
+        cardinality--;
+        if (containers[index].cardinality == 0) {
+            removeContainer(index);
+        }
+        return true;
+    }
+
+    boolean contains(long id) {
+        int index = Arrays.binarySearch(keys, 0, size, id >>> 16);
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Возвращает все id по возрастанию.
+     */
+    long[] toArray() {
+        long[] result = new long[cardinality];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            position = containers[i].copyTo(result, position, keys[i] << 16);
+        }
+        return result;
+    }
+
+    private void insertContainer(int index, long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = new Container();
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static final class Container {
+        private char[] values = new char[2];
+        private long[] bits;
+        private int cardinality;
+
+        boolean add(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                bits[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_CONTAINER_LIMIT) {
+                convertToBitmap();
+                return add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_CONTAINER_LIMIT, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) == 0) {
+                    return false;
+                }
+                bits[value >>> 6] &= ~mask;
+                cardinality--;
+                if (cardinality <= ARRAY_CONTAINER_LIMIT / 2) {
+                    convertToArray();
+                }
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        boolean contains(char value) {
+            if (bits != null) {
+                return (bits[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        int copyTo(long[] target, int position, long high) {
+            if (bits == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    target[position++] = high | values[i];
+                }
+                return position;
+            }
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long current = bits[word];
+                while (current != 0) {
+                    target[position++] = high | ((long) word << 6) | Long.numberOfTrailingZeros(current);
+                    current &= current - 1;
+                }
+            }
+            return position;
+        }
+
+        private void convertToBitmap() {
+            bits = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        private void convertToArray() {
+            char[] array = new char[cardinality];
+            int position = 0;
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long current = bits[word];
+                while (current != 0) {
+                    array[position++] = (char) ((word << 6) | Long.numberOfTrailingZeros(current));
+                    current &= current - 1;
+                }
+            }
+            values = array;
+            bits = null;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * Кандидаты из списков триграмм проверяются на точное совпадение подстроки по тексту,
+ * сохраненному в индексе, поэтому семантика поиска совпадает с запросом {@link ItemRepository#search},
+ * а страница результатов выбирается без обращения к базе.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int MIN_QUERY_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+    /**
+     * Изменения, пришедшие во время перестроения: после загрузки они применяются к новому индексу.
+     */
+    private List<Change> pending;
+
+    @Value("${shareit.search.in-memory:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean supports(String text) {
+        return enabled && text.length() >= MIN_QUERY_LENGTH;
+    }
+
+    /**
+     * Строит новый индекс рядом с текущим и подменяет его целиком, поэтому запросы
+     * во время перестроения видят полный старый индекс.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings next = new Postings();
+        boolean loaded = false;
+        try {
+            long lastId = 0L;
+            List<ItemSearchView> batch;
+            do {
+                batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(
+                        lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ItemSearchView view : batch) {
+                    next.add(view.getId(), document(view.getName(), view.getDescription()));
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    for (Change change : pending) {
+                        change.applyTo(next);
+                    }
+                    postings = next;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Поисковый индекс построен: {} вещей, {} триграмм",
+                next.documents.size(), next.grams.size());
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        Change change = Boolean.TRUE.equals(item.getAvailable())
+                ? new Change(item.getId(), document(item.getName(), item.getDescription()))
+                : new Change(item.getId(), null);
+        apply(change);
+    }
+
+    /**
+     * Перечитывает вещь из базы: ее изменил другой экземпляр сервера.
+     */
+    public void refresh(Long itemId) {
+        if (!enabled) {
+            return;
+        }
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isPresent()) {
+            index(item.get());
+        } else {
+            remove(itemId);
+        }
+    }
+
+    public void remove(Long itemId) {
+        if (!enabled) {
+            return;
+        }
+        apply(new Change(itemId, null));
+    }
+
+    /**
+     * Возвращает по возрастанию id страницу вещей, название или описание которых содержит текст:
+     * пропускает первые {@code offset} совпадений и возвращает не больше {@code limit}.
+     */
+    public long[] search(String text, int offset, int limit) {
+        long[] grams = trigrams(text);
+        if (grams.length == 0 || limit <= 0) {
+            return new long[0];
+        }
+        String needle = normalize(text);
+        lock.readLock().lock();
+        try {
+            List<IdBitmap> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                IdBitmap ids = postings.grams.get(gram);
+                if (ids == null) {
+                    return new long[0];
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(IdBitmap::cardinality));
+            long[] candidates = lists.get(0).toArray();
+            long[] page = new long[Math.min(limit, candidates.length)];
+            int found = 0;
+            int skipped = 0;
+            for (long id : candidates) {
+                if (found == page.length) {
+                    break;
+                }
+                boolean inAll = true;
+                for (int i = 1; i < lists.size() && inAll; i++) {
+                    inAll = lists.get(i).contains(id);
+                }
+                if (!inAll || !postings.documents.get(id).contains(needle)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page[found++] = id;
+                }
+            }
+            return Arrays.copyOf(page, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean matches(Item item, String text) {
+        String needle = normalize(text);
+        return Boolean.TRUE.equals(item.getAvailable())
+                && (normalize(item.getName()).contains(needle) || normalize(item.getDescription()).contains(needle));
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(postings);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Текст вещи в нижнем регистре; поля разделены символом, которого нет в запросах,
+     * чтобы совпадение не склеивало конец названия с началом описания.
+     */
+    private static String document(String name, String description) {
+        return normalize(name) + FIELD_SEPARATOR + normalize(description);
+    }
+
+    /**
+     * Отсортированные различные триграммы текста, упакованные по 16 бит на символ.
+     */
+    private static long[] trigrams(String text) {
+        String normalized = normalize(text);
+        int count = Math.max(0, normalized.length() - MIN_QUERY_LENGTH + 1);
+        long[] grams = new long[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            char first = normalized.charAt(i);
+            char second = normalized.charAt(i + 1);
+            char third = normalized.charAt(i + 2);
+            if (first == FIELD_SEPARATOR || second == FIELD_SEPARATOR || third == FIELD_SEPARATOR) {
+                continue;
+            }
+            grams[size++] = ((long) first << 32) | ((long) second << 16) | third;
+        }
+        Arrays.sort(grams, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Списки id по триграммам и тексты проиндексированных вещей.
+     */
+    private static final class Postings {
+        private final LongObjectMap<IdBitmap> grams = new LongObjectMap<>();
+        private final LongObjectMap<String> documents = new LongObjectMap<>();
+
+        void add(long id, String document) {
+            remove(id);
+            documents.put(id, document);
+            for (long gram : trigrams(document)) {
+                grams.computeIfAbsent(gram, key -> new IdBitmap()).add(id);
+            }
+        }
+
+        void remove(long id) {
+            String document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (long gram : trigrams(document)) {
+                IdBitmap ids = grams.get(gram);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Добавление вещи с текстом или удаление, если текста нет.
+     */
+    private static final class Change {
+        private final long id;
+        private final String document;
+
+        Change(long id, String document) {
+            this.id = id;
+            this.document = document;
+        }
+
+        void applyTo(Postings target) {
+            if (document == null) {
+                target.remove(id);
+            } else {
+                target.add(id, document);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Проекция вещи с полями, которые попадают в поисковый индекс.
+ */
+public interface ItemSearchView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
 import ru.practicum.shareit.item.dto.ItemDtoReqPatch;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -18,9 +20,11 @@ public interface ItemService {
 
     ItemDto patchItem(Long userId, ItemDtoReqPatch itemDto, Long itemId);
 
-    List<ItemDto> searchItemsByText(Long userId, String text);
+    List<ItemDto> searchItemsByText(Long userId, String text, Integer from, Integer size);
 
     ItemDto getByIdAndUserId(Long userId, Long itemId);
 
     CommentDto addNewComment(Long userId, CommentDto commentDto, Long itemId);
+
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end);
 }
@@ -2,31 +2,54 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.invalidation.model.InvalidationRegion;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
 import ru.practicum.shareit.item.dto.ItemDtoReqPatch;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.ItemWithBookingsView;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -37,61 +60,75 @@ import static java.util.stream.Collectors.toList;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
-    private static final Sort SORT_BY_START_ASC = Sort.by(Sort.Direction.ASC, "start");
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
-    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created");
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserGuard userGuard;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingAvailability bookingAvailability;
+    private final ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    private final CacheInvalidations cacheInvalidations;
 
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
 
+    @Value("${shareit.search.full-text:false}")
+    private boolean fullTextSearch;
 
     @Override
     public List<ItemDto> getItemsByOwner(Long userId) {
-        List<Item> items = itemRepository.findAllByUserIdOrderByIdAsc(userId);
+        List<ItemWithBookingsView> items = itemRepository.findViewsWithBookingsByUserId(userId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
         LocalDateTime timeNow = LocalDateTime.now();
-        Map<Long, List<Comment>> comments = commentRepository.findByItemIn(items, SORT_BY_CREATED_DESC)
+        List<Long> itemIds = items.stream().map(ItemView::getId).collect(toList());
+        Map<Long, List<CommentView>> comments = commentRepository.findViewsByItemIdIn(itemIds)
                 .stream()
-                .collect(groupingBy(comment -> comment.getItem().getId(), toList()));
+                .collect(groupingBy(CommentView::getItemId, toList()));
 
-        Map<Long, List<Booking>> lastBookingsMap = bookingRepository.findByItemInAndStartLessThanEqual(
-                        items, timeNow, SORT_BY_START_DESC)
-                .stream()
-                .collect(groupingBy(booking -> booking.getItem().getId(), toList()));
-        Map<Long, List<Booking>> nextBookingsMap = bookingRepository.findByItemInAndStartAfter(
-                        items, timeNow, SORT_BY_START_ASC)
-                .stream()
-                .collect(groupingBy(booking -> booking.getItem().getId(), toList()));
-        List<ItemDto> itemDtoList = itemMapper.toItemDtoList(items);
-        for (ItemDto itemDto : itemDtoList) {
-            List<Booking> lastBookings = lastBookingsMap.get(itemDto.getId());
-            List<Booking> nextBookings = nextBookingsMap.get(itemDto.getId());
-            List<Comment> commentList = comments.get(itemDto.getId());
-            if (Objects.nonNull(lastBookings) && !lastBookings.isEmpty()) {
-                itemDto.setLastBooking(bookingMapper.toBookingInItemDto(lastBookings.get(0)));
-            }
-            if (Objects.nonNull(nextBookings) && !nextBookings.isEmpty()) {
-                if (nextBookings.get(0).getStatus().equals(StatusBooking.APPROVED)) {
-                    itemDto.setNextBooking(bookingMapper.toBookingInItemDto(nextBookings.get(0)));
+        List<Long> staleItemIds = items.stream()
+                .filter(item -> isSummaryStale(item, timeNow))
+                .map(ItemView::getId)
+                .collect(toList());
+        Map<Long, ItemBookingView> lastBookings = new HashMap<>();
+        Map<Long, ItemBookingView> nextBookings = new HashMap<>();
+        if (!staleItemIds.isEmpty()) {
+            for (ItemBookingView booking : bookingRepository.findLastAndNextByItemIds(staleItemIds, timeNow)) {
+                if (ItemBookingView.LAST.equals(booking.getKind())) {
+                    lastBookings.put(booking.getItemId(), booking);
+                } else {
+                    nextBookings.put(booking.getItemId(), booking);
                 }
             }
+        }
+        List<ItemDto> itemDtoList = new ArrayList<>(items.size());
+        for (ItemWithBookingsView item : items) {
+            ItemDto itemDto = itemMapper.toItemDto(item);
+            if (isSummaryStale(item, timeNow)) {
+                setBookings(itemDto, lastBookings.get(item.getId()), nextBookings.get(item.getId()));
+            } else {
+                setBookings(itemDto, item);
+            }
+            List<CommentView> commentList = comments.get(item.getId());
             if (Objects.nonNull(commentList)) {
-                itemDto.setComments(commentMapper.toDtoList(commentList));
+                itemDto.setComments(commentMapper.viewsToDtoList(commentList));
             } else {
                 itemDto.setComments(Collections.emptyList());
             }
+            itemDtoList.add(itemDto);
         }
         return itemDtoList;
     }
 
     @Override
+    @Transactional
     public ItemDto addNewItem(Long userId, ItemDtoReqCreate itemDto) {
         User user = validateUserId(userId);
         Item item = itemMapper.toItem(itemDto);
@@ -104,12 +141,17 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
         itemRepository.save(item);
+        itemBookingSummaryUpdater.create(item.getId());
+        afterCommit(() -> itemSearchIndex.index(item));
+        cacheInvalidations.publish(InvalidationRegion.ITEM, item.getId());
         log.info("Пользователь с id {} создал предмет с id {}", userId, item.getId());
         ItemDto itemDtoResp = itemMapper.toItemDto(item);
         return itemDtoResp;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto patchItem(Long userId, ItemDtoReqPatch itemDto, Long itemId) {
         User user = validateUserId(userId);
         itemDto.setId(itemId);
@@ -132,6 +174,8 @@ public class ItemServiceImpl implements ItemService {
         itemMapper.updateItem(itemDto, item);
         item.setUser(user);
         itemRepository.save(item);
+        afterCommit(() -> itemSearchIndex.index(item));
+        cacheInvalidations.publish(InvalidationRegion.ITEM, item.getId());
         log.info("Предмет с id {} обновлен", itemId);
         ItemDto itemDtoResp = itemMapper.toItemDto(item);
         return itemDtoResp;
@@ -139,20 +183,29 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto getByIdAndUserId(Long userId, Long itemId) {
-        validateUserId(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
+        userGuard.requireExists(userId);
+        ItemSnapshot item = itemRepository.findSnapshotById(itemId).orElseThrow(() -> {
             throw new NotFoundException("Такой вещи не существует");
         });
         ItemDto itemDto = itemMapper.toItemDto(item);
         LocalDateTime timeNow = LocalDateTime.now();
-        if (item.getUser().getId().equals(userId)) {
-            Booking lastBooking = bookingRepository
-                    .findFirstByItemIdAndStartLessThanEqual(itemId, timeNow, SORT_BY_START_DESC);
-            Booking nextBooking = bookingRepository
-                    .findFirstByItemIdAndStartAfter(itemId, timeNow, SORT_BY_START_ASC);
-            itemDto.setLastBooking(bookingMapper.toBookingInItemDto(lastBooking));
-            if (nextBooking != null && nextBooking.getStatus().equals(StatusBooking.APPROVED)) {
-                itemDto.setNextBooking(bookingMapper.toBookingInItemDto(nextBooking));
+        if (item.getOwnerId().equals(userId)) {
+            ItemWithBookingsView view = itemRepository.findViewWithBookingsById(itemId).orElseThrow(() -> {
+                throw new NotFoundException("Такой вещи не существует");
+            });
+            if (isSummaryStale(view, timeNow)) {
+                ItemBookingView lastBooking = null;
+                ItemBookingView nextBooking = null;
+                for (ItemBookingView booking : bookingRepository.findLastAndNextByItemIds(List.of(itemId), timeNow)) {
+                    if (ItemBookingView.LAST.equals(booking.getKind())) {
+                        lastBooking = booking;
+                    } else {
+                        nextBooking = booking;
+                    }
+                }
+                setBookings(itemDto, lastBooking, nextBooking);
+            } else {
+                setBookings(itemDto, view);
             }
         }
         List<CommentDto> commentDtoList = commentMapper.toDtoList(commentRepository.findAllByItemId(itemId));
@@ -161,19 +214,34 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> searchItemsByText(Long userId, String text) {
+    public List<ItemDto> searchItemsByText(Long userId, String text, Integer from, Integer size) {
         if (text == null || text.isBlank()) return Collections.emptyList();
-        List<ItemDto> listItems = itemMapper.toItemDtoList(itemRepository.search(text));
+        if (itemSearchIndex.supports(text)) {
+            return itemMapper.toItemDtoList(searchInIndex(text, from, size));
+        }
+        PageRequest pageRequest = PageRequest.of((from / size), size);
+        List<Item> items = fullTextSearch
+                ? itemRepository.searchFullText(text, pageRequest)
+                : itemRepository.search(text, pageRequest);
+        List<ItemDto> listItems = itemMapper.toItemDtoList(items);
         return listItems;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public void deleteItem(Long userId, Long itemId) {
         itemRepository.deleteById(itemId);
+        cacheInvalidations.publish(InvalidationRegion.ITEM, itemId);
+        afterCommit(() -> {
+            itemSearchIndex.remove(itemId);
+            bookingAvailability.evict(itemId);
+        });
         log.info("Пользователь с id {} удалил предмет с id {}", userId, itemId);
     }
 
     @Override
+    @Transactional
     public CommentDto addNewComment(Long userId, CommentDto commentDto, Long itemId) {
         User user = validateUserId(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> {
@@ -197,6 +265,82 @@ public class ItemServiceImpl implements ItemService {
         return commentDto;
     }
 
+    private List<Item> searchInIndex(String text, Integer from, Integer size) {
+        long[] ids = itemSearchIndex.search(text, (from / size) * size, size);
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Long> idList = Arrays.stream(ids).boxed().collect(toList());
+        List<Item> items = new ArrayList<>(itemRepository.findAllById(idList));
+        items.removeIf(item -> !ItemSearchIndex.matches(item, text));
+        items.sort(Comparator.comparing(Item::getId));
+        return items;
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        userGuard.requireExists(userId);
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало интервала должно быть раньше окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Такой вещи не существует");
+        }
+        boolean booked = bookingAvailability.isBooked(itemId, start, end);
+        LocalDateTime nextFreeStart = booked ? bookingAvailability.nextFreeStart(itemId, start, end) : start;
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .available(!booked)
+                .nextFreeStart(nextFreeStart)
+                .nextFreeEnd(nextFreeStart.plus(Duration.between(start, end)))
+                .build();
+    }
+
+    /**
+     * Следующая бронь из сводки уже началась, а фоновый пересчет сводки еще не прошел:
+     * последнюю и следующую брони нужно взять из таблицы броней.
+     */
+    private static boolean isSummaryStale(ItemWithBookingsView item, LocalDateTime now) {
+        return item.getNextStart() != null && !item.getNextStart().isAfter(now);
+    }
+
+    private void setBookings(ItemDto itemDto, ItemWithBookingsView item) {
+        if (Objects.nonNull(item.getLastBookingId())) {
+            itemDto.setLastBooking(bookingMapper.toLastBookingInItemDto(item));
+        }
+        if (Objects.nonNull(item.getNextBookingId()) && StatusBooking.APPROVED.equals(item.getNextStatus())) {
+            itemDto.setNextBooking(bookingMapper.toNextBookingInItemDto(item));
+        }
+    }
+
+    private void setBookings(ItemDto itemDto, ItemBookingView lastBooking, ItemBookingView nextBooking) {
+        if (Objects.nonNull(lastBooking)) {
+            itemDto.setLastBooking(bookingMapper.toBookingInItemDto(lastBooking));
+        }
+        if (Objects.nonNull(nextBooking) && nextBooking.getStatus().equals(StatusBooking.APPROVED)) {
+            itemDto.setNextBooking(bookingMapper.toBookingInItemDto(nextBooking));
+        }
+    }
+
+    /**
+     * Выполняет действие после фиксации текущей транзакции, а вне транзакции — сразу:
+     * откат не должен менять состояние в памяти.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     private User validateUserId(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> {
             throw new NotFoundException("Такого пользователя не существует");
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoCreate;
 import ru.practicum.shareit.request.service.RequestService;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -40,9 +43,25 @@ public class RequestController {
         return requestService.getAllRequests(userId, from, size);
     }
 
+    /**
+     * ETag считается по полям запроса вместе с вещами-ответами, без сериализации ответа:
+     * на совпавший {@code If-None-Match} отдается 304 без тела.
+     */
     @GetMapping("/{requestId}")
     public RequestDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                              @PathVariable Long requestId) {
-        return requestService.getRequestById(userId, requestId);
+                              @PathVariable Long requestId,
+                              WebRequest request) {
+        RequestDto itemRequest = requestService.getRequestById(userId, requestId);
+        if (request.checkNotModified(etag(itemRequest))) {
+            return null;
+        }
+        return itemRequest;
+    }
+
+    /**
+     * {@code toString()} от Lombok перечисляет все поля, включая вложенные вещи.
+     */
+    private static String etag(RequestDto itemRequest) {
+        return "\"" + DigestUtils.md5DigestAsHex(itemRequest.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
     }
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция запроса для списков.
+ */
+public interface RequestView {
+    Long getId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+}
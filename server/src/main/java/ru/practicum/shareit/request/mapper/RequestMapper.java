@@ -6,6 +6,7 @@ import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoCreate;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
@@ -19,6 +20,11 @@ public interface RequestMapper {
 
     List<RequestDto> toRequestDtoList(List<Request> requests);
 
+    @Mapping(target = "items", ignore = true)
+    RequestDto toRequestDto(RequestView view);
+
+    List<RequestDto> viewsToRequestDtoList(List<RequestView> views);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "requester", ignore = true)
     @Mapping(target = "created", ignore = true)
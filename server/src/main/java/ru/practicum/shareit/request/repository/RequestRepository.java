@@ -4,6 +4,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.request.model.Request;
 
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.List;
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
 
-    List<Request> findByRequesterIdOrderByCreatedDesc(Long requesterId);
+    List<RequestView> findViewsByRequesterIdOrderByCreatedDesc(Long requesterId);
 
-    Page<Request> findByRequesterIdIsNot(Long userId, PageRequest pageRequest);
+    Page<RequestView> findViewsByRequesterIdIsNot(Long userId, PageRequest pageRequest);
 }
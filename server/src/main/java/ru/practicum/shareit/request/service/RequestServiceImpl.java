@@ -6,17 +6,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoCreate;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -29,15 +33,18 @@ import static java.util.stream.Collectors.toList;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserGuard userGuard;
 
     private final ItemMapper itemMapper;
     private final RequestMapper requestMapper;
 
     @Override
+    @Transactional
     public RequestDto addNewRequest(Long userId, RequestDtoCreate requestDtoCreate) {
         User requester = validateUserId(userId);
         Request request = requestMapper.toRequest(requestDtoCreate);
@@ -52,39 +59,42 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public List<RequestDto> getRequests(Long userId) {
-        User requester = validateUserId(userId);
-        List<Request> listRequests = requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
-        List<RequestDto> requestDtoList = requestMapper.toRequestDtoList(listRequests);
-        setItemsToRequestDto(listRequests, requestDtoList);
+        userGuard.requireExists(userId);
+        List<RequestView> listRequests = requestRepository.findViewsByRequesterIdOrderByCreatedDesc(userId);
+        List<RequestDto> requestDtoList = requestMapper.viewsToRequestDtoList(listRequests);
+        setItemsToRequestDto(requestDtoList);
 
         return requestDtoList;
     }
 
-    private void setItemsToRequestDto(List<Request> requests, List<RequestDto> dtos) {
-        Map<Long, List<Item>> items = itemRepository.findByRequestIn(requests)
+    private void setItemsToRequestDto(List<RequestDto> dtos) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = dtos.stream().map(RequestDto::getId).collect(toList());
+        Map<Long, List<ItemView>> items = itemRepository.findViewsByRequestIdIn(requestIds)
                 .stream()
-                .collect(groupingBy(item -> item.getRequest().getId(), toList()));
+                .collect(groupingBy(ItemView::getRequestId, toList()));
         for (RequestDto dto : dtos) {
-            List<Item> itemList = items.getOrDefault(dto.getId(), Collections.emptyList());
-            dto.setItems(itemMapper.toItemDtoList(itemList));
+            List<ItemView> itemList = items.getOrDefault(dto.getId(), Collections.emptyList());
+            dto.setItems(itemMapper.viewsToItemDtoList(itemList));
         }
     }
 
     @Override
     public List<RequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        User requester = validateUserId(userId);
+        userGuard.requireExists(userId);
         PageRequest pageRequest = PageRequest.of((from / size), size, Sort.by("created").descending());
-        Page<Request> page = requestRepository.findByRequesterIdIsNot(userId, pageRequest);
-        List<Request> requests = page.getContent();
-        List<RequestDto> requestDtoList = requestMapper.toRequestDtoList(requests);
-        setItemsToRequestDto(requests, requestDtoList);
+        Page<RequestView> page = requestRepository.findViewsByRequesterIdIsNot(userId, pageRequest);
+        List<RequestDto> requestDtoList = requestMapper.viewsToRequestDtoList(page.getContent());
+        setItemsToRequestDto(requestDtoList);
 
         return requestDtoList;
     }
 
     @Override
     public RequestDto getRequestById(Long userId, Long requestId) {
-        User requester = validateUserId(userId);
+        userGuard.requireExists(userId);
         Request request = requestRepository.findById(requestId).orElseThrow(() -> {
             throw new NotFoundException("Запрос с таким id отсутствует");
         });
@@ -2,10 +2,13 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -26,9 +29,17 @@ public class UserController {
         return userService.addNewUser(userDto);
     }
 
+    /**
+     * ETag считается по полям пользователя из кэша, без сериализации ответа: на совпавший
+     * {@code If-None-Match} отдается 304 без тела.
+     */
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
-        return userService.getUserById(userId);
+    public UserDto getUserById(@PathVariable Long userId, WebRequest request) {
+        UserDto user = userService.getUserById(userId);
+        if (request.checkNotModified(etag(user))) {
+            return null;
+        }
+        return user;
     }
 
     @PatchMapping("/{userId}")
@@ -47,4 +58,9 @@ public class UserController {
         return userService.deleteUserById(userId);
     }
 
+    private static String etag(UserDto user) {
+        String version = user.getId() + "\u0000" + user.getEmail() + "\u0000" + user.getName();
+        return "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
 }
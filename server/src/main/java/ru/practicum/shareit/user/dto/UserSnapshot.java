@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Value;
+
+/**
+ * Неизменяемая копия пользователя для кэша: ее можно отдавать нескольким потокам сразу.
+ */
+@Value
+public class UserSnapshot {
+    Long id;
+    String email;
+    String name;
+}
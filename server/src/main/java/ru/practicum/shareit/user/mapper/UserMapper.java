@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.mapper;
 
 import org.mapstruct.Mapper;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -15,6 +16,8 @@ public interface UserMapper {
 
     UserDto toUserDto(User user);
 
+    UserDto toUserDto(UserSnapshot snapshot);
+
     List<UserDto> toUserDtoList(List<User> userList);
 
 }
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.repository;
 
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Optional;
@@ -10,6 +15,18 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Optional<User> findById(Long userId);
+    /**
+     * Копия пользователя для чтения по id. В кэш попадает только прочитанное из основного пула.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null or !@readOnlyRouting.readsFromPrimary()")
+    @Query("select new ru.practicum.shareit.user.dto.UserSnapshot(u.id, u.email, u.name) from User u where u.id = :userId")
+    Optional<UserSnapshot> findSnapshotById(@Param("userId") Long userId);
+
+    /**
+     * Кэшируется только положительный ответ основного пула: отказ мог прийти с реплики,
+     * которая еще не получила нового пользователя.
+     */
+    @Cacheable(cacheNames = CacheConfig.USER_EXISTS, unless = "!#result or !@readOnlyRouting.readsFromPrimary()")
+    boolean existsById(Long userId);
 }
 
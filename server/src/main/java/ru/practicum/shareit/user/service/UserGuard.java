@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Проверка существования пользователя без загрузки сущности.
+ * Положительный результат {@link UserRepository#existsById} кэшируется до удаления пользователя.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserGuard {
+    private final UserRepository userRepository;
+
+    public void requireExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Такого пользователя не существует");
+        }
+    }
+}
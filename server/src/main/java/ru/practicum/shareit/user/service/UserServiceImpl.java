@@ -3,8 +3,14 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.invalidation.model.InvalidationRegion;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -15,12 +21,15 @@ import java.util.List;
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final CacheInvalidations cacheInvalidations;
 
 
     @Override
+    @Transactional
     public UserDto addNewUser(UserDto userDto) {
         User user = userMapper.toUser(userDto);
         userRepository.save(user);
@@ -30,6 +39,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public UserDto patchUser(Long userId, UserDto userDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Такого пользователя не существует"));
@@ -43,13 +54,14 @@ public class UserServiceImpl implements UserService {
         user.setId(userId);
         userDto.setId(userId);
         userRepository.save(user);
+        cacheInvalidations.publish(InvalidationRegion.USER, userId);
         log.info("Пользователь с id {} обновлен", userId);
         return userDto;
     }
 
     @Override
     public UserDto getUserById(Long userId) {
-        return userMapper.toUserDto(userRepository.findById(userId)
+        return userMapper.toUserDto(userRepository.findSnapshotById(userId)
                 .orElseThrow(() -> new NotFoundException("Такого пользователя не существует")));
     }
 
@@ -60,10 +72,16 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#userId")
+    })
     public UserDto deleteUserById(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Такого пользователя не существует"));
         userRepository.deleteById(userId);
+        cacheInvalidations.publish(InvalidationRegion.USER, userId);
         log.info("Пользователь с id {} удален", userId);
         return userMapper.toUserDto(user);
     }
@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_start TIMESTAMP,
+  next_booking_id BIGINT,
+  next_start TIMESTAMP,
+  next_status VARCHAR(255),
+  CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_start);
+
+INSERT INTO item_booking_summary (item_id, last_booking_id, last_start, next_booking_id, next_start, next_status)
+SELECT i.id, l.id, l.start_time, n.id, n.start_time, n.status
+FROM items i
+LEFT JOIN (SELECT b.id, b.item_id, b.start_time,
+                  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_time DESC, b.id DESC) AS rn
+           FROM booking b
+           WHERE b.start_time <= LOCALTIMESTAMP) l ON l.item_id = i.id AND l.rn = 1
+LEFT JOIN (SELECT b.id, b.item_id, b.start_time, b.status,
+                  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_time, b.id) AS rn
+           FROM booking b
+           WHERE b.start_time > LOCALTIMESTAMP) n ON n.item_id = i.id AND n.rn = 1;
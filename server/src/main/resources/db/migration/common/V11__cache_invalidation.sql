@@ -0,0 +1,11 @@
+CREATE SEQUENCE IF NOT EXISTS cache_invalidation_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+  id BIGINT NOT NULL,
+  region VARCHAR(32) NOT NULL,
+  entity_id BIGINT NOT NULL,
+  created TIMESTAMP NOT NULL,
+  CONSTRAINT pk_cache_invalidation PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidation_created ON cache_invalidation (created);
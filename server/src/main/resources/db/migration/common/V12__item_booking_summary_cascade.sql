@@ -0,0 +1,4 @@
+DELETE FROM item_booking_summary WHERE item_id NOT IN (SELECT id FROM items);
+
+ALTER TABLE item_booking_summary
+  ADD CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE;
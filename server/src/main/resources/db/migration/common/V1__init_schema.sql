@@ -43,11 +43,3 @@ CREATE TABLE IF NOT EXISTS comments (
   created timestamp NOT NULL,
   CONSTRAINT pk_comment PRIMARY KEY (id)
 );
-
-CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    description  CHARACTER VARYING,
-    requester_id BIGINT   NOT NULL, --references USERS on delete cascade,
-    created TIMESTAMP,
-    constraint PK_REQUESTS primary key (id)
-);
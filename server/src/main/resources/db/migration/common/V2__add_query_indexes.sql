@@ -0,0 +1,11 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_booking_owner_start ON booking (owner_id, start_time);
+CREATE INDEX IF NOT EXISTS idx_booking_item_start ON booking (item_id, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created);
@@ -0,0 +1,10 @@
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start_waiting ON booking (booker_id, start_time)
+  WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start_rejected ON booking (booker_id, start_time)
+  WHERE status = 'REJECTED';
+CREATE INDEX IF NOT EXISTS idx_booking_owner_start_waiting ON booking (owner_id, start_time)
+  WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_booking_owner_start_rejected ON booking (owner_id, start_time)
+  WHERE status = 'REJECTED';
+CREATE INDEX IF NOT EXISTS idx_booking_item_booker_end_approved ON booking (item_id, booker_id, end_time)
+  WHERE status = 'APPROVED';
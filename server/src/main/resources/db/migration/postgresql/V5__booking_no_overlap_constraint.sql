@@ -0,0 +1,46 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- До ограничения пересекающиеся подтверждения не отклонялись. Брони проходят по порядку начала (при равном
+-- начале — по id), и подтвержденная бронь, пересекающаяся с уже оставленной, переводится в REJECTED.
+-- За проход отклоняются брони, пересекающиеся с бронью, у которой нет более ранних пересечений.
+DO $$
+DECLARE
+  batch BIGINT[];
+  rejected BIGINT[] := '{}';
+BEGIN
+  LOOP
+    WITH conflicting AS (
+      UPDATE booking b
+      SET status = 'REJECTED'
+      WHERE b.status = 'APPROVED'
+        AND EXISTS (
+          SELECT 1
+          FROM booking e
+          WHERE e.item_id = b.item_id
+            AND e.status = 'APPROVED'
+            AND (e.start_time, e.id) < (b.start_time, b.id)
+            AND e.start_time < b.end_time
+            AND e.end_time > b.start_time
+            AND NOT EXISTS (
+              SELECT 1
+              FROM booking f
+              WHERE f.item_id = e.item_id
+                AND f.status = 'APPROVED'
+                AND (f.start_time, f.id) < (e.start_time, e.id)
+                AND f.start_time < e.end_time
+                AND f.end_time > e.start_time))
+      RETURNING b.id)
+    SELECT array_agg(id ORDER BY id) INTO batch FROM conflicting;
+    EXIT WHEN batch IS NULL;
+    rejected := rejected || batch;
+  END LOOP;
+  IF cardinality(rejected) > 0 THEN
+    RAISE WARNING 'Отклонены % подтвержденных бронирований, пересекающихся с более ранними: %',
+      cardinality(rejected), rejected;
+  END IF;
+END $$;
+
+ALTER TABLE booking
+  ADD CONSTRAINT booking_approved_no_overlap
+  EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+  WHERE (status = 'APPROVED');
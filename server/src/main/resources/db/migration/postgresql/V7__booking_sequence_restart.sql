@@ -0,0 +1,3 @@
+-- pooled-оптимизатор Hibernate выдает идентификаторы (nextval - 50, nextval],
+-- поэтому последовательность сдвигается на размер блока выше существующих броней
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM booking), false);
@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет, что ограничение на пересечение подтвержденных броней накатывается на базу,
+ * где такие пересечения уже есть. Выполняется только при доступном Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOverlapMigrationTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    @Test
+    void migrate_whenApprovedBookingsOverlap_thenLaterConflictingRejected() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource).target("4").load().migrate();
+        insertBooking(jdbcTemplate, 1L, 1L, 1, 5, "APPROVED");
+        insertBooking(jdbcTemplate, 2L, 1L, 3, 7, "APPROVED");
+        insertBooking(jdbcTemplate, 3L, 1L, 6, 8, "APPROVED");
+        insertBooking(jdbcTemplate, 4L, 1L, 2, 4, "WAITING");
+        insertBooking(jdbcTemplate, 5L, 2L, 3, 7, "APPROVED");
+
+        flyway(dataSource).load().migrate();
+
+        assertEquals("APPROVED", status(jdbcTemplate, 1L));
+        assertEquals("REJECTED", status(jdbcTemplate, 2L));
+        assertEquals("APPROVED", status(jdbcTemplate, 3L));
+        assertEquals("WAITING", status(jdbcTemplate, 4L));
+        assertEquals("APPROVED", status(jdbcTemplate, 5L));
+    }
+
+    private static FluentConfiguration flyway(DriverManagerDataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql");
+    }
+
+    private static void insertBooking(JdbcTemplate jdbcTemplate, Long id, Long itemId, int startDay, int endDay,
+                                      String status) {
+        jdbcTemplate.update("insert into booking (id, start_time, end_time, item_id, owner_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, 1, 2, ?)",
+                id, DAY.plusDays(startDay), DAY.plusDays(endDay), itemId, status);
+    }
+
+    private static String status(JdbcTemplate jdbcTemplate, Long id) {
+        return jdbcTemplate.queryForObject("select status from booking where id = ?", String.class, id);
+    }
+}
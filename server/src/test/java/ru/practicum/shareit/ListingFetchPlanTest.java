@@ -0,0 +1,162 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsView;
+import ru.practicum.shareit.item.mapper.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет по статистике Hibernate, что страница списка вместе с маппингом в DTO
+ * загружается фиксированным числом SQL-запросов и не зависит от числа строк.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingMapperImpl.class, ItemMapperImpl.class, UserMapperImpl.class, CommentMapperImpl.class})
+class ListingFetchPlanTest {
+
+    private static final int ROWS = 5;
+    private static final long MAX_STATEMENTS = 1;
+    private static final PageRequest PAGE_REQUEST = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingMapper bookingMapper;
+    @Autowired
+    private ItemMapper itemMapper;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(getUser("owner"));
+        booker = entityManager.persist(getUser("booker"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        for (int i = 0; i < ROWS; i++) {
+            User requester = entityManager.persist(getUser("requester" + i));
+            Request request = entityManager.persist(Request.builder()
+                    .description("Нужна вещь " + i)
+                    .requester(requester)
+                    .build());
+            Item item = entityManager.persist(Item.builder()
+                    .name("Вещь " + i)
+                    .description("Описание " + i)
+                    .available(true)
+                    .user(owner)
+                    .request(request)
+                    .build());
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1L));
+            booking.setItem(item);
+            booking.setOwner(owner);
+            booking.setBooker(i == 0 ? booker : entityManager.persist(getUser("booker" + i)));
+            booking.setStatus(StatusBooking.WAITING);
+            entityManager.persist(booking);
+            entityManager.persist(new ItemBookingSummary(item.getId(), null, null,
+                    booking.getId(), booking.getStart(), booking.getStatus()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByOwnerId_whenPageMapped_thenSingleStatement() {
+        List<BookingDto> dtos = bookingMapper.toBookingDtoList(
+                bookingRepository.findByOwnerId(owner.getId(), PAGE_REQUEST).getContent());
+
+        assertEquals(ROWS, dtos.size());
+        dtos.forEach(dto -> {
+            assertNotNull(dto.getItem().getRequestId());
+            assertNotNull(dto.getBooker().getEmail());
+        });
+        assertStatementsAtMost(MAX_STATEMENTS);
+    }
+
+    @Test
+    void findByBookerIdAfterCursor_whenPageMapped_thenSingleStatement() {
+        List<BookingDto> dtos = bookingMapper.toBookingDtoList(bookingRepository.findByBookerIdAfterCursor(
+                booker.getId(), LocalDateTime.now().plusYears(1L), Long.MAX_VALUE, PAGE_REQUEST).getContent());
+
+        assertEquals(1, dtos.size());
+        assertStatementsAtMost(MAX_STATEMENTS);
+    }
+
+    @Test
+    void findViewsWithBookingsByUserId_whenSummaryJoined_thenSingleStatementWithoutEntities() {
+        List<ItemWithBookingsView> items = itemRepository.findViewsWithBookingsByUserId(owner.getId());
+
+        assertEquals(ROWS, items.size());
+        items.forEach(item -> {
+            assertNull(item.getLastBookingId());
+            assertNotNull(item.getNextBookingId());
+            assertNotNull(item.getNextBookerId());
+            assertEquals(StatusBooking.WAITING, item.getNextStatus());
+        });
+        assertStatementsAtMost(MAX_STATEMENTS);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findViewsByUserId_whenItemsMapped_thenSingleStatementWithoutEntities() {
+        List<ItemDto> dtos = itemMapper.viewsToItemDtoList(itemRepository.findViewsByUserId(owner.getId()));
+
+        assertEquals(ROWS, dtos.size());
+        dtos.forEach(dto -> assertNotNull(dto.getRequestId()));
+        assertStatementsAtMost(MAX_STATEMENTS);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private void assertStatementsAtMost(long expected) {
+        long actual = statistics.getPrepareStatementCount();
+        assertTrue(actual <= expected, "Ожидалось не больше " + expected + " SQL-запросов, выполнено " + actual);
+    }
+
+    private User getUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.com");
+        return user;
+    }
+}
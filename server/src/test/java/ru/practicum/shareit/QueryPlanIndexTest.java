@@ -0,0 +1,298 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что запросы репозиториев обслуживаются индексами из миграций.
+ * SQL и параметры перехватываются у JDBC-драйвера при вызове настоящего метода репозитория
+ * и передаются в EXPLAIN; в плане ожидается конкретный индекс. Планировщик работает
+ * с настройками по умолчанию на данных, объем которых делает индекс выгоднее полного просмотра.
+ * Выполняется только при доступном Docker.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanIndexTest {
+
+    private static final int USERS = 500;
+    private static final int ITEMS = 5_000;
+    private static final int REQUESTS = 1_000;
+    private static final int BOOKINGS = 50_000;
+    private static final int COMMENTS = 20_000;
+    private static final List<CapturedStatement> CAPTURED = Collections.synchronizedList(new ArrayList<>());
+    private static boolean seeded;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("insert into users (id, name, email) "
+                + "select g, 'user' || g, 'user' || g || '@mail.ru' from generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("insert into requests (id, description, requester_id, created) "
+                + "select g, 'Нужна вещь ' || g, g % ? + 1, localtimestamp - g * interval '1 hour' "
+                + "from generate_series(1, ?) g", USERS, REQUESTS);
+        jdbcTemplate.update("insert into items (id, name, description, user_id, available, request_id) "
+                + "select g, 'Вещь ' || g, 'Описание вещи ' || g, g % ? + 1, true, "
+                + "case when g % 2 = 0 then g % ? + 1 end from generate_series(1, ?) g", USERS, REQUESTS, ITEMS);
+        jdbcTemplate.update("insert into booking (id, start_time, end_time, item_id, owner_id, booker_id, status) "
+                + "select g, localtimestamp + (g / ? - 5) * interval '2 day', "
+                + "localtimestamp + (g / ? - 5) * interval '2 day' + interval '1 day', "
+                + "g % ? + 1, (g % ? + 1) % ? + 1, g % ? + 1, "
+                + "(array['APPROVED', 'WAITING', 'REJECTED'])[g % 3 + 1] from generate_series(1, ?) g",
+                ITEMS, ITEMS, ITEMS, ITEMS, USERS, USERS, BOOKINGS);
+        jdbcTemplate.update("insert into comments (id, item_id, user_id, text, created) "
+                + "select g, g % ? + 1, g % ? + 1, 'Комментарий ' || g, localtimestamp - g * interval '1 minute' "
+                + "from generate_series(1, ?) g", ITEMS, USERS, COMMENTS);
+        jdbcTemplate.execute("analyze");
+        seeded = true;
+    }
+
+    @Test
+    void bookerListings_whenExplained_thenBookerIndexesUsed() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")));
+
+        assertIndexUsed("idx_booking_booker_start", () -> bookingRepository.findByBookerId(1L, page));
+        assertIndexUsed("idx_booking_booker_start", () -> bookingRepository
+                .findByBookerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, page));
+        assertIndexUsed("idx_booking_booker_start_waiting", () -> bookingRepository
+                .findByBookerIdAndStatusIs(1L, StatusBooking.WAITING, page));
+        assertIndexUsed("idx_booking_booker_start_rejected", () -> bookingRepository
+                .findByBookerIdAndStatusIs(1L, StatusBooking.REJECTED, page));
+        assertIndexUsed("idx_booking_booker_start", () -> bookingRepository
+                .findByBookerIdAfterCursor(1L, now, Long.MAX_VALUE, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void ownerListings_whenExplained_thenOwnerIndexesUsed() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")));
+
+        assertIndexUsed("idx_booking_owner_start", () -> bookingRepository.findByOwnerId(1L, page));
+        assertIndexUsed("idx_booking_owner_start_waiting", () -> bookingRepository
+                .findByOwnerIdAndStatusIs(1L, StatusBooking.WAITING, page));
+        assertIndexUsed("idx_booking_owner_start", () -> bookingRepository
+                .findFutureByOwnerIdAfterCursor(1L, now, now.plusYears(1L), Long.MAX_VALUE, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void itemBookings_whenExplained_thenItemIndexesUsed() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertIndexUsed("idx_booking_item_start", () -> bookingRepository
+                .findLastAndNextByItemIds(List.of(1L, 2L, 3L), now));
+        assertIndexUsed("idx_booking_item_booker_end_approved", () -> bookingRepository
+                .findByItem_IdAndBooker_IdAndStatusAndEndIsBefore(1L, 1L, StatusBooking.APPROVED, now));
+    }
+
+    @Test
+    void itemQueries_whenExplained_thenItemIndexesUsed() throws SQLException {
+        assertIndexUsed("idx_items_user_id", () -> itemRepository.findViewsWithBookingsByUserId(1L));
+        assertIndexUsed("idx_items_request_id", () -> itemRepository.findAllByRequestId(2L));
+        assertIndexUsed("idx_items_request_id", () -> itemRepository.findViewsByRequestIdIn(List.of(2L, 4L, 6L)));
+        assertIndexUsed("idx_items_search_vector", () -> itemRepository
+                .searchFullText("перфоратор", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void commentAndRequestQueries_whenExplained_thenIndexesUsed() throws SQLException {
+        assertIndexUsed("idx_comments_item_created", () -> commentRepository.findAllByItemId(1L));
+        assertIndexUsed("idx_comments_item_created", () -> commentRepository
+                .findViewsByItemIdIn(List.of(1L, 2L, 3L)));
+        assertIndexUsed("idx_requests_requester_created", () -> requestRepository
+                .findViewsByRequesterIdOrderByCreatedDesc(1L));
+        assertIndexUsed("idx_requests_created", () -> requestRepository
+                .findViewsByRequesterIdIsNot(1L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"))));
+    }
+
+    /**
+     * Выполняет вызов репозитория и проверяет план первого выполненного им запроса;
+     * последующие запросы (например, подсчет строк для Page) не рассматриваются.
+     */
+    private void assertIndexUsed(String index, Runnable repositoryCall) throws SQLException {
+        CAPTURED.clear();
+        repositoryCall.run();
+        assertFalse(CAPTURED.isEmpty(), "Репозиторий не выполнил ни одного запроса");
+        CapturedStatement statement = CAPTURED.get(0);
+        String plan = explain(statement);
+
+        assertTrue(plan.contains(index),
+                () -> "Запрос выполняется без индекса " + index + ":\n" + statement.sql + "\n" + plan);
+    }
+
+    private String explain(CapturedStatement statement) throws SQLException {
+        try (Connection connection = dataSource.unwrap(DataSource.class).getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + statement.sql)) {
+            for (ParameterBinding binding : statement.bindings) {
+                binding.applyTo(explain);
+            }
+            List<String> lines = new ArrayList<>();
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    lines.add(resultSet.getString(1));
+                }
+            }
+            return String.join("\n", lines);
+        }
+    }
+
+    /**
+     * Оборачивает пул так, чтобы каждый выполненный PreparedStatement сохранял SQL и вызовы set*.
+     */
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        static BeanPostProcessor statementCapturingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    DataSource target = (DataSource) bean;
+                    return proxy(DataSource.class, (proxy, method, args) -> {
+                        if (method.getName().equals("unwrap") && DataSource.class.equals(args[0])) {
+                            return target;
+                        }
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection ? capturing((Connection) result) : result;
+                    });
+                }
+            };
+        }
+
+        private static Connection capturing(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement) {
+                    return capturing((PreparedStatement) result, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            List<ParameterBinding> bindings = new ArrayList<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    bindings.add(new ParameterBinding(method, args));
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    CAPTURED.add(new CapturedStatement(sql, new ArrayList<>(bindings)));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+
+    private static final class CapturedStatement {
+        private final String sql;
+        private final List<ParameterBinding> bindings;
+
+        CapturedStatement(String sql, List<ParameterBinding> bindings) {
+            this.sql = sql;
+            this.bindings = bindings;
+        }
+    }
+
+    /**
+     * Вызов set* с теми же аргументами, что передал Hibernate, чтобы EXPLAIN получил те же типы параметров.
+     */
+    private static final class ParameterBinding {
+        private final Method method;
+        private final Object[] args;
+
+        ParameterBinding(Method method, Object[] args) {
+            this.method = method;
+            this.args = args.clone();
+        }
+
+        void applyTo(PreparedStatement statement) throws SQLException {
+            try {
+                method.invoke(statement, args);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new SQLException("Не удалось повторить привязку параметра " + method.getName(), e);
+            }
+        }
+    }
+}
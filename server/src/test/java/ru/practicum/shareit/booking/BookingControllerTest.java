@@ -9,6 +9,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 import ru.practicum.shareit.booking.model.StatusBooking;
@@ -65,6 +69,44 @@ class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(dto)));
     }
 
+    @SneakyThrows
+    @Test
+    void addBatch_whenInvoked_thenReturnedResultPerElement() {
+        long userId = 1L;
+        BookingDtoReqCreate createBookingDto = getCreateBookingDto();
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).status(201).booking(getBookingDto()).build(),
+                BookingBatchResultDto.builder().index(1).status(404).error("Предмет с таким id отсутствует").build());
+        when(bookingService.addNewBookings(userId, List.of(createBookingDto, createBookingDto))).thenReturn(results);
+
+        mockMvc.perform(post("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(
+                                new BookingBatchCreateDto(List.of(createBookingDto, createBookingDto))))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+    }
+
+    @SneakyThrows
+    @Test
+    void patchBatch_whenInvoked_thenReturnedResultPerElement() {
+        long ownerId = 1L;
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true));
+        BookingDto dto = getBookingDto();
+        dto.setStatus(StatusBooking.APPROVED);
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).status(200).booking(dto).build());
+        when(bookingService.patchBookings(ownerId, decisions)).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(new BookingBatchDecisionDto(decisions)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+    }
+
     @SneakyThrows
     @Test
     void getById_whenBookingFound_thenReturnedBookingDto() {
@@ -118,6 +160,43 @@ class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(dtoList)));
     }
 
+    @SneakyThrows
+    @Test
+    void getBookings_whenCursorPassed_thenKeysetPageReturned() {
+        String state = "ALL";
+        long userId = 1L;
+        LocalDateTime afterStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<BookingDto> dtoList = List.of(getBookingDto());
+        when(bookingService.getListBookingsAfter(userId, state, afterStart, 5L, 10)).thenReturn(dtoList);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", state)
+                        .param("afterStart", "2030-01-01T12:00:00")
+                        .param("afterId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(dtoList)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsOwner_whenCursorPassed_thenKeysetPageReturned() {
+        String state = "WAITING";
+        long ownerId = 1L;
+        LocalDateTime afterStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<BookingDto> dtoList = List.of(getBookingDto());
+        when(bookingService.getListBookingsOwnerAfter(ownerId, state, afterStart, 5L, 20)).thenReturn(dtoList);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .param("state", state)
+                        .param("size", "20")
+                        .param("afterStart", "2030-01-01T12:00:00")
+                        .param("afterId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(dtoList)));
+    }
+
     BookingDtoReqCreate getCreateBookingDto() {
         BookingDtoReqCreate dto = new BookingDtoReqCreate();
         dto.setItemId(1L);
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingAvailability bookingAvailability;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookingAvailability = new BookingAvailability(bookingRepository, 100L, Duration.ofMinutes(1L));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isBooked_whenIntervalOverlapsApprovedBooking_thenTrue() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(getBooking(1L, 10, 12), getBooking(2L, 14, 16)));
+
+        assertTrue(bookingAvailability.isBooked(1L, at(11), at(13)));
+        assertTrue(bookingAvailability.isBooked(1L, at(9), at(17)));
+        assertFalse(bookingAvailability.isBooked(1L, at(12), at(14)));
+        assertFalse(bookingAvailability.isBooked(1L, at(16), at(20)));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class));
+    }
+
+    @Test
+    void nextFreeStart_whenGapsTooShort_thenFirstFittingGapReturned() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(getBooking(1L, 10, 12), getBooking(2L, 13, 16), getBooking(3L, 18, 20)));
+
+        assertEquals(at(16), bookingAvailability.nextFreeStart(1L, at(11), at(13)));
+        assertEquals(at(20), bookingAvailability.nextFreeStart(1L, at(11), at(14)));
+        assertEquals(at(0), bookingAvailability.nextFreeStart(1L, at(0), at(5)));
+    }
+
+    @Test
+    void reserve_whenIntervalTaken_thenValidationExceptionThrownUntilReleased() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Booking first = getBooking(1L, 10, 12);
+        Booking second = getBooking(2L, 11, 13);
+
+        bookingAvailability.reserve(first);
+
+        assertThrows(ValidationException.class, () -> bookingAvailability.reserve(second));
+        bookingAvailability.release(first);
+        bookingAvailability.reserve(second);
+        assertTrue(bookingAvailability.isBooked(1L, at(12), at(13)));
+    }
+
+    @Test
+    void reserve_whenTransactionRolledBack_thenIntervalFreed() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookingAvailability.reserve(getBooking(1L, 10, 12));
+
+        assertTrue(bookingAvailability.isBooked(1L, at(10), at(11)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertFalse(bookingAvailability.isBooked(1L, at(10), at(11)));
+    }
+
+    @Test
+    void release_whenTransactionRolledBack_thenIntervalKept() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(getBooking(1L, 10, 12)));
+        assertTrue(bookingAvailability.isBooked(1L, at(10), at(11)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookingAvailability.release(getBooking(1L, 10, 12));
+
+        assertTrue(bookingAvailability.isBooked(1L, at(10), at(11)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertTrue(bookingAvailability.isBooked(1L, at(10), at(11)));
+    }
+
+    @Test
+    void release_whenTransactionCommitted_thenIntervalFreed() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(getBooking(1L, 10, 12)));
+        assertTrue(bookingAvailability.isBooked(1L, at(10), at(11)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookingAvailability.release(getBooking(1L, 10, 12));
+
+        assertTrue(bookingAvailability.isBooked(1L, at(10), at(11)));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertFalse(bookingAvailability.isBooked(1L, at(10), at(11)));
+    }
+
+    @Test
+    void isBooked_whenReservedIntervalEnded_thenIntervalPruned() {
+        when(bookingRepository.findByItemIdAndStatusAndEndAfterOrderByStartAsc(
+                eq(1L), eq(StatusBooking.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        LocalDateTime now = LocalDateTime.now();
+        Booking ended = getBooking(1L, 0, 1);
+        ended.setStart(now.minusHours(2L));
+        ended.setEnd(now.minusHours(1L));
+        bookingAvailability.reserve(ended);
+
+        assertFalse(bookingAvailability.isBooked(1L, now.minusHours(2L), now.minusHours(1L)));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static LocalDateTime at(int hour) {
+        return BASE.plusHours(hour);
+    }
+
+    private static Booking getBooking(Long id, int startHour, int endHour) {
+        Item item = new Item();
+        item.setId(1L);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(at(startHour));
+        booking.setEnd(at(endHour));
+        booking.setStatus(StatusBooking.APPROVED);
+        return booking;
+    }
+}
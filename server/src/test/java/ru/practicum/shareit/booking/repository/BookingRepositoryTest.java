@@ -5,8 +5,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.item.model.Item;
@@ -15,10 +17,13 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @Sql("/bookingRepository_test_data.sql")
@@ -66,35 +71,80 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findByItemInAndStartLessThanEqual() {
-        List<Item> items = itemRepository.findAll();
-        Booking booking = getBooking();
-        booking.setStart(LocalDateTime.now().minusDays(2L));
-        booking.setEnd(LocalDateTime.now().minusDays(1L));
-        booking.setStatus(StatusBooking.APPROVED);
-        Booking savedBooking = entityManager.persistAndFlush(booking);
-        List<Booking> expectedBookings = List.of(savedBooking);
-
-        List<Booking> actualBookings = bookingRepository.findByItemInAndStartLessThanEqual(
-                items, LocalDateTime.now(), SORT_BY_START_DESC);
-
-        assertEquals(expectedBookings, actualBookings);
+    void findLastAndNextByItemIds() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking oldPast = getBooking();
+        oldPast.setStart(now.minusDays(4L));
+        oldPast.setEnd(now.minusDays(3L));
+        oldPast.setStatus(StatusBooking.APPROVED);
+        entityManager.persist(oldPast);
+        Booking last = getBooking();
+        last.setStart(now.minusDays(2L));
+        last.setEnd(now.minusDays(1L));
+        last.setStatus(StatusBooking.APPROVED);
+        entityManager.persist(last);
+        Booking next = getBooking();
+        next.setStart(now.plusDays(1L));
+        next.setEnd(now.plusDays(2L));
+        next.setStatus(StatusBooking.WAITING);
+        entityManager.persist(next);
+        Booking farFuture = getBooking();
+        farFuture.setStart(now.plusDays(3L));
+        farFuture.setEnd(now.plusDays(4L));
+        farFuture.setStatus(StatusBooking.APPROVED);
+        entityManager.persistAndFlush(farFuture);
+
+        List<ItemBookingView> actualBookings = bookingRepository.findLastAndNextByItemIds(List.of(1L), now);
+
+        assertEquals(2, actualBookings.size());
+        ItemBookingView actualLast = actualBookings.stream()
+                .filter(view -> ItemBookingView.LAST.equals(view.getKind())).findFirst().orElseThrow();
+        ItemBookingView actualNext = actualBookings.stream()
+                .filter(view -> ItemBookingView.NEXT.equals(view.getKind())).findFirst().orElseThrow();
+        assertEquals(last.getId(), actualLast.getId());
+        assertEquals(1L, actualLast.getItemId());
+        assertEquals(1L, actualLast.getBookerId());
+        assertEquals(last.getStart(), actualLast.getStartTime());
+        assertEquals(StatusBooking.APPROVED, actualLast.getStatus());
+        assertEquals(next.getId(), actualNext.getId());
+        assertEquals(next.getEnd(), actualNext.getEndTime());
+        assertEquals(StatusBooking.WAITING, actualNext.getStatus());
     }
 
     @Test
-    void findByItemInAndStartAfter() {
-        List<Item> items = itemRepository.findAll();
-        Booking booking = getBooking();
-        booking.setStart(LocalDateTime.now().plusDays(1L));
-        booking.setEnd(LocalDateTime.now().plusDays(2L));
-        booking.setStatus(StatusBooking.APPROVED);
-        Booking savedBooking = entityManager.persistAndFlush(booking);
-        List<Booking> expectedBookings = List.of(savedBooking);
-
-        List<Booking> actualBookings = bookingRepository.findByItemInAndStartAfter(
-                items, LocalDateTime.now(), SORT_BY_START_ASC);
-
-        assertEquals(expectedBookings, actualBookings);
+    void findLastAndNextByItemIds_whenSameStart_thenTieBrokenById() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking firstPast = getBooking();
+        firstPast.setStart(now.minusDays(2L));
+        firstPast.setStatus(StatusBooking.WAITING);
+        firstPast.setEnd(now.minusDays(1L));
+        entityManager.persist(firstPast);
+        Booking secondPast = getBooking();
+        secondPast.setStart(now.minusDays(2L));
+        secondPast.setStatus(StatusBooking.WAITING);
+        secondPast.setEnd(now.minusDays(1L));
+        entityManager.persist(secondPast);
+        Booking firstNext = getBooking();
+        firstNext.setStart(now.plusDays(1L));
+        firstNext.setStatus(StatusBooking.WAITING);
+        firstNext.setEnd(now.plusDays(2L));
+        entityManager.persist(firstNext);
+        Booking secondNext = getBooking();
+        secondNext.setStart(now.plusDays(1L));
+        secondNext.setStatus(StatusBooking.WAITING);
+        secondNext.setEnd(now.plusDays(2L));
+        entityManager.persistAndFlush(secondNext);
+
+        List<ItemBookingView> actualBookings = bookingRepository.findLastAndNextByItemIds(List.of(1L), now);
+
+        assertEquals(2, actualBookings.size());
+        for (ItemBookingView view : actualBookings) {
+            if (ItemBookingView.LAST.equals(view.getKind())) {
+                assertEquals(secondPast.getId(), view.getId());
+            } else {
+                assertEquals(firstNext.getId(), view.getId());
+            }
+        }
     }
 
     @Test
@@ -237,6 +287,67 @@ class BookingRepositoryTest {
         assertEquals(expectedBookings, actualBookings);
     }
 
+    @Test
+    void findByBookerIdAfterCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        Booking first = getBooking();
+        first.setStart(start);
+        first.setStatus(StatusBooking.WAITING);
+        entityManager.persistAndFlush(first);
+        Booking second = getBooking();
+        second.setStart(start);
+        second.setStatus(StatusBooking.WAITING);
+        entityManager.persistAndFlush(second);
+        Booking third = getBooking();
+        third.setStart(start.minusHours(1L));
+        third.setStatus(StatusBooking.WAITING);
+        entityManager.persistAndFlush(third);
+
+        Slice<Booking> firstPage = bookingRepository.findByBookerIdAfterCursor(
+                1L, start.plusDays(1L), Long.MAX_VALUE, PageRequest.of(0, 2));
+        Booking cursor = firstPage.getContent().get(1);
+        Slice<Booking> secondPage = bookingRepository.findByBookerIdAfterCursor(
+                1L, cursor.getStart(), cursor.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(second, first), firstPage.getContent());
+        assertTrue(firstPage.hasNext());
+        assertEquals(List.of(third), secondPage.getContent());
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    void findByBookerId_whenStartsEqual_thenPagesOrderedById() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        Booking first = getBooking();
+        first.setStart(start);
+        first.setStatus(StatusBooking.WAITING);
+        entityManager.persistAndFlush(first);
+        Booking second = getBooking();
+        second.setStart(start);
+        second.setStatus(StatusBooking.WAITING);
+        entityManager.persistAndFlush(second);
+        Sort sort = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+
+        Slice<Booking> firstPage = bookingRepository.findByBookerId(1L, PageRequest.of(0, 1, sort));
+        Slice<Booking> secondPage = bookingRepository.findByBookerId(1L, PageRequest.of(1, 1, sort));
+
+        assertEquals(List.of(second), firstPage.getContent());
+        assertEquals(List.of(first), secondPage.getContent());
+    }
+
+    @Test
+    void findByOwnerIdAndStatusAfterCursor() {
+        Booking booking = getBooking();
+        booking.setStatus(StatusBooking.REJECTED);
+        Booking savedBooking = entityManager.persistAndFlush(booking);
+        List<Booking> expectedBookings = List.of(savedBooking);
+
+        List<Booking> actualBookings = bookingRepository.findByOwnerIdAndStatusAfterCursor(2L,
+                StatusBooking.REJECTED, LocalDateTime.now().plusDays(1L), 0L, PageRequest.of(0, 10)).getContent();
+
+        assertEquals(expectedBookings, actualBookings);
+    }
+
     @Test
     void findByItem_IdAndBooker_IdAndStatusAndEndIsBefore() {
         Booking booking = getBooking();
@@ -252,6 +363,28 @@ class BookingRepositoryTest {
         assertEquals(expectedBookings, actualBookings);
     }
 
+    @Test
+    void existsOverlapping() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+        Booking approved = getBooking();
+        approved.setStart(start);
+        approved.setEnd(start.plusDays(2L));
+        approved.setStatus(StatusBooking.APPROVED);
+        Booking waiting = getBooking();
+        waiting.setStart(start.plusDays(1L));
+        waiting.setEnd(start.plusDays(3L));
+        waiting.setStatus(StatusBooking.WAITING);
+        entityManager.persist(approved);
+        entityManager.persistAndFlush(waiting);
+
+        assertTrue(bookingRepository.existsOverlapping(1L, waiting.getId(), StatusBooking.APPROVED,
+                waiting.getStart(), waiting.getEnd()));
+        assertFalse(bookingRepository.existsOverlapping(1L, approved.getId(), StatusBooking.APPROVED,
+                approved.getStart(), approved.getEnd()));
+        assertFalse(bookingRepository.existsOverlapping(1L, waiting.getId(), StatusBooking.APPROVED,
+                start.plusDays(2L), start.plusDays(3L)));
+    }
+
     private Booking getBooking() {
         Booking booking = new Booking();
         booking.setStart(LocalDateTime.now());
@@ -8,26 +8,38 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.StatusException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -36,7 +48,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
 
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -46,6 +58,14 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserGuard userGuard;
+    @Mock
+    private BookingAvailability bookingAvailability;
+    @Mock
+    private ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    @Mock
+    private CacheInvalidations cacheInvalidations;
     @Spy
     @InjectMocks
     private BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
@@ -55,6 +75,8 @@ class BookingServiceImplTest {
     private UserMapper userMapper = Mappers.getMapper(UserMapper.class);
     @Captor
     private ArgumentCaptor<Booking> bookingArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<List<Booking>> bookingListArgumentCaptor;
 
     @Test
     void addNewBooking_whenInvoked_thenSavedUser() {
@@ -70,7 +92,6 @@ class BookingServiceImplTest {
         bookingToSave.setBooker(expectedUser);
         bookingToSave.setStatus(StatusBooking.WAITING);
         when(itemRepository.findById(createBookingDto.getItemId())).thenReturn(Optional.of(expectedItem));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(expectedUser));
         doAnswer(invocationOnMock -> {
             Booking booking = invocationOnMock.getArgument(0, Booking.class);
             booking.setId(1L);
@@ -84,13 +105,13 @@ class BookingServiceImplTest {
         verify(bookingRepository).save(bookingArgumentCaptor.capture());
         Booking savedBooking = bookingArgumentCaptor.getValue();
         assertEquals(bookingToSave, savedBooking);
+        verify(itemBookingSummaryUpdater).apply(List.of(savedBooking));
     }
 
     @Test
     void addNewBooking_whenItemNotFound_thenNotFoundExceptionThrown() {
         Long userId = 2L;
         BookingDtoReqCreate createBookingDto = getCreateBookingDto();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(getUser()));
         when(itemRepository.findById(createBookingDto.getItemId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -102,7 +123,7 @@ class BookingServiceImplTest {
     void addNewBooking_whenUserNotFound_thenNotFoundExceptionThrown() {
         Long userId = 2L;
         BookingDtoReqCreate createBookingDto = getCreateBookingDto();
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("Такого пользователя не существует")).when(userGuard).requireExists(userId);
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.addNewBooking(userId, createBookingDto));
@@ -114,7 +135,6 @@ class BookingServiceImplTest {
         Long userId = 1L;
         BookingDtoReqCreate createBookingDto = getCreateBookingDto();
         Item item = getItem();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(getUser()));
         when(itemRepository.findById(createBookingDto.getItemId())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -128,7 +148,6 @@ class BookingServiceImplTest {
         BookingDtoReqCreate createBookingDto = getCreateBookingDto();
         Item item = getItem();
         item.setAvailable(Boolean.FALSE);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
         when(itemRepository.findById(createBookingDto.getItemId())).thenReturn(Optional.of(item));
 
         assertThrows(ValidationException.class,
@@ -136,6 +155,19 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    void addNewBooking_whenItemAlreadyBooked_thenValidationExceptionThrown() {
+        Long userId = 2L;
+        BookingDtoReqCreate createBookingDto = getCreateBookingDto();
+        when(itemRepository.findById(createBookingDto.getItemId())).thenReturn(Optional.of(getItem()));
+        when(bookingAvailability.isBooked(1L, createBookingDto.getStart(), createBookingDto.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.addNewBooking(userId, createBookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void patchBooking_whenApproved_thenStatusApprovedSet() {
         Long bookingId = 1L;
@@ -147,7 +179,6 @@ class BookingServiceImplTest {
         bookingToUpdate.setStatus(StatusBooking.WAITING);
         BookingDto expectedBookingDto = bookingMapper.toBookingDto(bookingToUpdate);
         expectedBookingDto.setStatus(StatusBooking.APPROVED);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
 
         BookingDto actualBookingDto = bookingService.patchBooking(ownerId, bookingId, "TRUE");
@@ -166,7 +197,6 @@ class BookingServiceImplTest {
         bookingToUpdate.setStatus(StatusBooking.WAITING);
         BookingDto expectedBookingDto = bookingMapper.toBookingDto(bookingToUpdate);
         expectedBookingDto.setStatus(StatusBooking.REJECTED);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
 
         BookingDto actualBookingDto = bookingService.patchBooking(ownerId, bookingId, "false");
@@ -174,6 +204,55 @@ class BookingServiceImplTest {
         assertEquals(expectedBookingDto, actualBookingDto);
     }
 
+    @Test
+    void patchBooking_whenApprovedIntervalTaken_thenValidationExceptionThrown() {
+        Long bookingId = 1L;
+        Long ownerId = 1L;
+        Booking bookingToUpdate = getBooking();
+        bookingToUpdate.setOwner(getUser());
+        bookingToUpdate.setStatus(StatusBooking.WAITING);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
+        doThrow(new ValidationException("Вещь уже забронирована на это время"))
+                .when(bookingAvailability).reserve(bookingToUpdate);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.patchBooking(ownerId, bookingId, "true"));
+        assertEquals(StatusBooking.WAITING, bookingToUpdate.getStatus());
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void patchBooking_whenIntervalTakenInDatabase_thenReservationLeftToRollback() {
+        Long bookingId = 1L;
+        Long ownerId = 1L;
+        Booking bookingToUpdate = getBooking();
+        bookingToUpdate.setOwner(getUser());
+        bookingToUpdate.setStatus(StatusBooking.WAITING);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
+        when(bookingRepository.saveAndFlush(bookingToUpdate)).thenThrow(new DataIntegrityViolationException("overlap"));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.patchBooking(ownerId, bookingId, "true"));
+        verify(bookingAvailability).reserve(bookingToUpdate);
+        verify(bookingAvailability, never()).release(bookingToUpdate);
+    }
+
+    @Test
+    void patchBooking_whenApprovedBookingRejected_thenIntervalReleased() {
+        Long bookingId = 1L;
+        Long ownerId = 1L;
+        Booking bookingToUpdate = getBooking();
+        bookingToUpdate.setOwner(getUser());
+        bookingToUpdate.setStatus(StatusBooking.APPROVED);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
+
+        bookingService.patchBooking(ownerId, bookingId, "false");
+
+        verify(bookingAvailability).release(bookingToUpdate);
+        assertEquals(StatusBooking.REJECTED, bookingToUpdate.getStatus());
+        verify(itemBookingSummaryUpdater).apply(List.of(bookingToUpdate));
+    }
+
     @Test
     void patchBooking_whenStatusAlreadySet_thenBookingStatusExceptionThrown() {
         Long bookingId = 1L;
@@ -182,7 +261,6 @@ class BookingServiceImplTest {
         Booking bookingToUpdate = getBooking();
         bookingToUpdate.setStatus(StatusBooking.APPROVED);
         bookingToUpdate.setOwner(owner);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
 
         assertThrows(ValidationException.class,
@@ -196,7 +274,6 @@ class BookingServiceImplTest {
         Booking bookingToUpdate = getBooking();
         bookingToUpdate.setStatus(StatusBooking.WAITING);
         bookingToUpdate.setOwner(getUser());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(bookingToUpdate));
 
         assertThrows(NotFoundException.class,
@@ -207,13 +284,119 @@ class BookingServiceImplTest {
     void patchBooking_whenBookingNotFound_thenNotFoundExceptionThrown() {
         Long bookingId = 0L;
         Long ownerId = 1L;
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.patchBooking(ownerId, bookingId, "TRUE"));
     }
 
+    @Test
+    void addNewBookings_whenSomeElementsInvalid_thenValidSavedAndEachElementReported() {
+        Long userId = 2L;
+        User booker = getUser();
+        booker.setId(userId);
+        Item unavailableItem = getItem();
+        unavailableItem.setId(3L);
+        unavailableItem.setAvailable(Boolean.FALSE);
+        BookingDtoReqCreate valid = getCreateBookingDto();
+        BookingDtoReqCreate missingItem = getCreateBookingDto();
+        missingItem.setItemId(5L);
+        BookingDtoReqCreate unavailable = getCreateBookingDto();
+        unavailable.setItemId(3L);
+        when(itemRepository.findAllById(Set.of(1L, 5L, 3L))).thenReturn(List.of(getItem(), unavailableItem));
+        when(userRepository.getById(userId)).thenReturn(booker);
+
+        List<BookingBatchResultDto> results =
+                bookingService.addNewBookings(userId, List.of(valid, missingItem, unavailable));
+
+        verify(bookingRepository).saveAll(bookingListArgumentCaptor.capture());
+        List<Booking> saved = bookingListArgumentCaptor.getValue();
+        assertEquals(1, saved.size());
+        assertEquals(StatusBooking.WAITING, saved.get(0).getStatus());
+        assertEquals(booker, saved.get(0).getBooker());
+        assertEquals(List.of(201, 404, 400),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(1L, results.get(0).getBooking().getItem().getId());
+        assertEquals("Эта вещь сейчас не доступна", results.get(2).getError());
+    }
+
+    @Test
+    void patchBookings_whenMixedDecisions_thenEachElementDecided() {
+        Long ownerId = 1L;
+        Booking waiting = getBooking();
+        waiting.setOwner(getUser());
+        waiting.setStatus(StatusBooking.WAITING);
+        Booking approved = getBooking();
+        approved.setId(2L);
+        approved.setOwner(getUser());
+        approved.setStatus(StatusBooking.APPROVED);
+        when(bookingRepository.findAllById(Set.of(1L, 2L, 7L))).thenReturn(List.of(waiting, approved));
+
+        List<BookingBatchResultDto> results = bookingService.patchBookings(ownerId, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(7L, true),
+                new BookingDecisionDto(1L, false)));
+
+        verify(bookingAvailability).reserve(waiting);
+        verify(bookingAvailability).release(approved);
+        verify(bookingRepository).saveAllAndFlush(List.of(waiting, approved));
+        assertEquals(StatusBooking.APPROVED, waiting.getStatus());
+        assertEquals(StatusBooking.REJECTED, approved.getStatus());
+        assertEquals(List.of(200, 200, 404, 400),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+    }
+
+    @Test
+    void patchBookings_whenApprovedOverlapInDatabase_thenOnlyThatElementRejected() {
+        Long ownerId = 1L;
+        Booking overlapping = getBooking();
+        overlapping.setOwner(getUser());
+        overlapping.setStatus(StatusBooking.WAITING);
+        Booking free = getBooking();
+        free.setId(2L);
+        free.setOwner(getUser());
+        free.setStatus(StatusBooking.WAITING);
+        when(bookingRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(overlapping, free));
+        when(bookingRepository.existsOverlapping(1L, 1L, StatusBooking.APPROVED,
+                overlapping.getStart(), overlapping.getEnd())).thenReturn(true);
+
+        List<BookingBatchResultDto> results = bookingService.patchBookings(ownerId, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true)));
+
+        verify(bookingAvailability, never()).reserve(overlapping);
+        verify(bookingRepository).saveAllAndFlush(List.of(free));
+        assertEquals(StatusBooking.WAITING, overlapping.getStatus());
+        assertEquals(List.of(400, 200),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals("Вещь уже забронирована на это время", results.get(0).getError());
+    }
+
+    @Test
+    void patchBookings_whenBatchTooLarge_thenValidationExceptionThrown() {
+        List<BookingDecisionDto> decisions = Collections.nCopies(BookingServiceImpl.MAX_BATCH_SIZE + 1,
+                new BookingDecisionDto(1L, true));
+
+        assertThrows(ValidationException.class, () -> bookingService.patchBookings(1L, decisions));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void patchBookings_whenIntervalTakenInDatabase_thenReservationsLeftToRollback() {
+        Long ownerId = 1L;
+        Booking waiting = getBooking();
+        waiting.setOwner(getUser());
+        waiting.setStatus(StatusBooking.WAITING);
+        when(bookingRepository.findAllById(Set.of(1L))).thenReturn(List.of(waiting));
+        when(bookingRepository.saveAllAndFlush(List.of(waiting))).thenThrow(new DataIntegrityViolationException("overlap"));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.patchBookings(ownerId, List.of(new BookingDecisionDto(1L, true))));
+        verify(bookingAvailability).reserve(waiting);
+        verify(bookingAvailability, never()).release(waiting);
+    }
+
     @Test
     void getByIdAndUserId_whenBookingFoundAndBooker_thenReturnedBooking() {
         Long bookingId = 1L;
@@ -223,7 +406,6 @@ class BookingServiceImplTest {
         Booking foundedBooking = getBooking();
         foundedBooking.setOwner(user);
         BookingDto expectedDto = bookingMapper.toBookingDto(foundedBooking);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(foundedBooking));
 
         BookingDto actualDto = bookingService.getByIdAndUserId(userId, bookingId);
@@ -241,7 +423,6 @@ class BookingServiceImplTest {
         Booking foundedBooking = getBooking();
         foundedBooking.setOwner(owner);
         BookingDto expectedDto = bookingMapper.toBookingDto(foundedBooking);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(getUser()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(foundedBooking));
 
         BookingDto actualDto = bookingService.getByIdAndUserId(ownerId, bookingId);
@@ -255,7 +436,6 @@ class BookingServiceImplTest {
         Long userId = 0L;
         Booking foundedBooking = getBooking();
         foundedBooking.setOwner(getUser());
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(getUser()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(foundedBooking));
 
         assertThrows(NotFoundException.class,
@@ -266,7 +446,6 @@ class BookingServiceImplTest {
     void getByIdAndUserId_whenBookingNotFound_thenNotFoundExceptionThrown() {
         Long bookingId = 0L;
         Long userId = 1L;
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(getUser()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -284,7 +463,6 @@ class BookingServiceImplTest {
         PageRequest pageRequest = PageRequest.of(
                 (from / size), size, SORT_BY_START_DESC);
         Page<Booking> page = new PageImpl<>(bookings);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
         when(bookingRepository.findByBookerId(userId, pageRequest)).thenReturn(page);
         when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
                 eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq(pageRequest))).thenReturn(page);
@@ -323,7 +501,6 @@ class BookingServiceImplTest {
         PageRequest pageRequest = PageRequest.of(
                 (from / size), size, SORT_BY_START_DESC);
         Page<Booking> page = new PageImpl<>(bookings);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
         when(bookingRepository.findByOwnerId(userId, pageRequest)).thenReturn(page);
         when(bookingRepository.findByOwnerIdAndStartIsBeforeAndEndIsAfter(
                 eq(userId), any(LocalDateTime.class), any(LocalDateTime.class), eq(pageRequest))).thenReturn(page);
@@ -351,6 +528,77 @@ class BookingServiceImplTest {
                 () -> bookingService.getListBookingsOwner(userId, "OTHER", from, size));
     }
 
+    @Test
+    void getListBookingsAfter() {
+        Long userId = 1L;
+        Integer size = 10;
+        LocalDateTime afterStart = LocalDateTime.now();
+        Long afterId = 5L;
+        List<Booking> bookings = List.of(getBooking());
+        List<BookingDto> expectedDtos = bookingMapper.toBookingDtoList(bookings);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        Slice<Booking> slice = new SliceImpl<>(bookings);
+        when(bookingRepository.findByBookerIdAfterCursor(userId, afterStart, afterId, pageRequest)).thenReturn(slice);
+        when(bookingRepository.findCurrentByBookerIdAfterCursor(
+                eq(userId), any(LocalDateTime.class), eq(afterStart), eq(afterId), eq(pageRequest))).thenReturn(slice);
+        when(bookingRepository.findFutureByBookerIdAfterCursor(
+                eq(userId), any(LocalDateTime.class), eq(afterStart), eq(afterId), eq(pageRequest))).thenReturn(slice);
+        when(bookingRepository.findPastByBookerIdAfterCursor(
+                eq(userId), any(LocalDateTime.class), eq(afterStart), eq(afterId), eq(pageRequest))).thenReturn(slice);
+        when(bookingRepository.findByBookerIdAndStatusAfterCursor(
+                userId, StatusBooking.WAITING, afterStart, afterId, pageRequest)).thenReturn(slice);
+        when(bookingRepository.findByBookerIdAndStatusAfterCursor(
+                userId, StatusBooking.REJECTED, afterStart, afterId, pageRequest)).thenReturn(slice);
+
+        for (String state : List.of("ALL", "CURRENT", "FUTURE", "PAST", "WAITING", "REJECTED")) {
+            assertEquals(expectedDtos, bookingService.getListBookingsAfter(userId, state, afterStart, afterId, size));
+        }
+        assertThrows(StatusException.class,
+                () -> bookingService.getListBookingsAfter(userId, "OTHER", afterStart, afterId, size));
+    }
+
+    @Test
+    void getListBookingsOwnerAfter() {
+        Long userId = 1L;
+        Integer size = 10;
+        LocalDateTime afterStart = LocalDateTime.now();
+        Long afterId = 5L;
+        List<Booking> bookings = List.of(getBooking());
+        List<BookingDto> expectedDtos = bookingMapper.toBookingDtoList(bookings);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        Slice<Booking> slice = new SliceImpl<>(bookings);
+        when(bookingRepository.findByOwnerIdAfterCursor(userId, afterStart, afterId, pageRequest)).thenReturn(slice);
+        when(bookingRepository.findCurrentByOwnerIdAfterCursor(
+                eq(userId), any(LocalDateTime.class), eq(afterStart), eq(afterId), eq(pageRequest))).thenReturn(slice);
+        when(bookingRepository.findFutureByOwnerIdAfterCursor(
+                eq(userId), any(LocalDateTime.class), eq(afterStart), eq(afterId), eq(pageRequest))).thenReturn(slice);
+        when(bookingRepository.findPastByOwnerIdAfterCursor(
+                eq(userId), any(LocalDateTime.class), eq(afterStart), eq(afterId), eq(pageRequest))).thenReturn(slice);
+        when(bookingRepository.findByOwnerIdAndStatusAfterCursor(
+                userId, StatusBooking.WAITING, afterStart, afterId, pageRequest)).thenReturn(slice);
+        when(bookingRepository.findByOwnerIdAndStatusAfterCursor(
+                userId, StatusBooking.REJECTED, afterStart, afterId, pageRequest)).thenReturn(slice);
+
+        for (String state : List.of("ALL", "CURRENT", "FUTURE", "PAST", "WAITING", "REJECTED")) {
+            assertEquals(expectedDtos,
+                    bookingService.getListBookingsOwnerAfter(userId, state, afterStart, afterId, size));
+        }
+        assertThrows(StatusException.class,
+                () -> bookingService.getListBookingsOwnerAfter(userId, "OTHER", afterStart, afterId, size));
+    }
+
+    @Test
+    void getListBookingsAfter_whenCursorHalfSpecified_thenValidationExceptionThrown() {
+        Long userId = 1L;
+        LocalDateTime afterStart = LocalDateTime.now();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getListBookingsAfter(userId, "ALL", afterStart, null, 10));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getListBookingsOwnerAfter(userId, "ALL", null, 5L, 10));
+        verifyNoInteractions(bookingRepository);
+    }
+
     BookingDtoReqCreate getCreateBookingDto() {
         BookingDtoReqCreate dto = new BookingDtoReqCreate();
         dto.setItemId(1L);
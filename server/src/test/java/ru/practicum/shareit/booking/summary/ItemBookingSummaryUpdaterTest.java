@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.model.StatusBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ItemBookingSummaryUpdater.class)
+class ItemBookingSummaryUpdaterTest {
+    @Autowired
+    private ItemBookingSummaryUpdater updater;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(getUser("owner"));
+        booker = entityManager.persist(getUser("booker"));
+        item = entityManager.persist(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .user(owner)
+                .build());
+    }
+
+    @Test
+    void apply_whenBookingsWritten_thenLastAndNextTracked() {
+        updater.create(item.getId());
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = persistBooking(now.minusDays(2L), StatusBooking.APPROVED);
+        Booking later = persistBooking(now.plusDays(2L), StatusBooking.WAITING);
+        Booking sooner = persistBooking(now.plusDays(1L), StatusBooking.WAITING);
+
+        updater.apply(List.of(past, later));
+        updater.apply(List.of(sooner));
+        sooner.setStatus(StatusBooking.APPROVED);
+        updater.apply(List.of(sooner));
+
+        ItemBookingSummary summary = findSummary();
+        assertEquals(past.getId(), summary.getLastBookingId());
+        assertEquals(sooner.getId(), summary.getNextBookingId());
+        assertEquals(StatusBooking.APPROVED, summary.getNextStatus());
+    }
+
+    @Test
+    void apply_whenSummaryMissing_thenSummaryCreated() {
+        Booking booking = persistBooking(LocalDateTime.now().plusDays(1L), StatusBooking.WAITING);
+
+        updater.apply(List.of(booking));
+
+        ItemBookingSummary summary = findSummary();
+        assertNull(summary.getLastBookingId());
+        assertEquals(booking.getId(), summary.getNextBookingId());
+    }
+
+    @Test
+    void apply_whenSameStart_thenLastIsHigherIdAndNextIsLowerId() {
+        updater.create(item.getId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking firstPast = persistBooking(now.minusDays(1L), StatusBooking.APPROVED);
+        Booking secondPast = persistBooking(now.minusDays(1L), StatusBooking.APPROVED);
+        Booking firstNext = persistBooking(now.plusDays(1L), StatusBooking.WAITING);
+        Booking secondNext = persistBooking(now.plusDays(1L), StatusBooking.WAITING);
+
+        updater.apply(List.of(firstPast, firstNext));
+        updater.apply(List.of(secondPast, secondNext));
+
+        ItemBookingSummary summary = findSummary();
+        assertEquals(secondPast.getId(), summary.getLastBookingId());
+        assertEquals(firstNext.getId(), summary.getNextBookingId());
+    }
+
+    @Test
+    void deleteItem_whenSummaryExists_thenSummaryDeleted() {
+        updater.create(item.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        entityManager.remove(entityManager.find(Item.class, item.getId()));
+
+        assertNull(findSummary());
+    }
+
+    @Test
+    void refreshStarted_whenNextBookingStarted_thenSummaryRecomputed() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking started = persistBooking(now.minusHours(1L), StatusBooking.APPROVED);
+        Booking next = persistBooking(now.plusDays(1L), StatusBooking.APPROVED);
+        entityManager.persist(new ItemBookingSummary(item.getId(), null, null,
+                started.getId(), started.getStart(), started.getStatus()));
+        entityManager.flush();
+        entityManager.clear();
+
+        updater.refreshStarted();
+
+        ItemBookingSummary summary = findSummary();
+        assertEquals(started.getId(), summary.getLastBookingId());
+        assertEquals(next.getId(), summary.getNextBookingId());
+        assertEquals(StatusBooking.APPROVED, summary.getNextStatus());
+    }
+
+    private ItemBookingSummary findSummary() {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(ItemBookingSummary.class, item.getId());
+    }
+
+    private Booking persistBooking(LocalDateTime start, StatusBooking status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(2L));
+        booking.setItem(item);
+        booking.setOwner(owner);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return entityManager.persistAndFlush(booking);
+    }
+
+    private User getUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CacheConfigTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserGuard userGuard;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> savedUsers = new ArrayList<>();
+
+    @AfterEach
+    void clearCaches() {
+        savedUsers.stream().filter(userRepository::existsById).forEach(userRepository::deleteById);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void findById_whenCalledTwice_thenSecondCallServedFromCache() {
+        User user = saveUser("cache@mail.ru");
+        Cache<Object, Object> users = nativeCache(CacheConfig.USERS);
+        long hits = users.stats().hitCount();
+
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        assertInstanceOf(UserSnapshot.class, users.asMap().get(user.getId()));
+        assertEquals(hits + 1, users.stats().hitCount());
+    }
+
+    @Test
+    void patchUser_whenInvoked_thenCacheEntryEvicted() {
+        User user = saveUser("evict@mail.ru");
+        userService.getUserById(user.getId());
+        UserDto patch = new UserDto();
+        patch.setName("Updated");
+
+        userService.patchUser(user.getId(), patch);
+
+        assertFalse(nativeCache(CacheConfig.USERS).asMap().containsKey(user.getId()));
+        assertEquals("Updated", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void patchUser_whenTransactionRolledBack_thenCacheEntryKept() {
+        User user = saveUser("rollback@mail.ru");
+        userService.getUserById(user.getId());
+        UserDto patch = new UserDto();
+        patch.setName("Updated");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.patchUser(user.getId(), patch);
+            assertTrue(nativeCache(CacheConfig.USERS).asMap().containsKey(user.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("Cached", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void findById_whenUserMissing_thenMissNotCached() {
+        assertThrows(NotFoundException.class, () -> userService.getUserById(Long.MAX_VALUE));
+
+        assertFalse(nativeCache(CacheConfig.USERS).asMap().containsKey(Long.MAX_VALUE));
+    }
+
+    @Test
+    void requireExists_whenUserMissing_thenNegativeAnswerNotCached() {
+        Long missingId = addUser("first@mail.ru") + 1;
+
+        assertThrows(NotFoundException.class, () -> userGuard.requireExists(missingId));
+        Long nextId = addUser("second@mail.ru");
+        userGuard.requireExists(nextId);
+
+        assertEquals(missingId, nextId);
+        assertEquals(Boolean.TRUE, nativeCache(CacheConfig.USER_EXISTS).asMap().get(nextId));
+    }
+
+    @Test
+    void requireExists_whenUserDeleted_thenCachedAnswerEvicted() {
+        Long id = addUser("deleted@mail.ru");
+        userGuard.requireExists(id);
+
+        userService.deleteUserById(id);
+
+        assertThrows(NotFoundException.class, () -> userGuard.requireExists(id));
+    }
+
+    private Long addUser(String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName("Guarded");
+        userDto.setEmail(email);
+        Long id = userService.addNewUser(userDto).getId();
+        savedUsers.add(id);
+        return id;
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setName("Cached");
+        user.setEmail(email);
+        userRepository.save(user);
+        savedUsers.add(user.getId());
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return (Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+    @Mock
+    private DataSource target;
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_whenPermitsExhausted_thenThrownTransientException() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    void close_whenClosedTwice_thenPermitReleasedOnce() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        Connection limited = dataSource.getConnection();
+
+        limited.close();
+        limited.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_whenTargetFails_thenPermitReleased() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("нет соединения"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_whenInvoked_thenCallsDelegatedToTarget() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        assertFalse(dataSource.getConnection().getAutoCommit());
+    }
+}
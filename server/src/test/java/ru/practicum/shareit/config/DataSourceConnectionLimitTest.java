@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:connection_limit",
+        "shareit.virtual-threads.connection-permits=3"
+})
+class DataSourceConnectionLimitTest {
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Test
+    void dataSource_whenPermitsConfigured_thenOnlyRoutingDataSourceLimited() {
+        LazyConnectionDataSourceProxy proxy = assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+
+        assertInstanceOf(ConnectionLimitingDataSource.class, proxy.getTargetDataSource());
+        assertInstanceOf(HikariDataSource.class, primaryDataSource);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.config;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary",
+        "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:routing_replica",
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test"
+})
+class DataSourceRoutingConfigTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ReadYourWrites readYourWrites;
+    @Autowired
+    private ReadOnlyRouting readOnlyRouting;
+
+    @AfterEach
+    void clearUser() {
+        readYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaConfigured_thenReplicaUsed() {
+        assertTrue(databaseUrl(true).endsWith("routing_replica"));
+    }
+
+    @Test
+    void readWriteTransaction_whenReplicaConfigured_thenPrimaryUsed() {
+        assertTrue(databaseUrl(false).endsWith("routing_primary"));
+    }
+
+    @Test
+    void readOnlyTransaction_whenUserWroteRecently_thenPrimaryUsed() {
+        readYourWrites.bind(1L);
+        databaseUrl(false);
+
+        assertTrue(databaseUrl(true).endsWith("routing_primary"));
+
+        readYourWrites.bind(2L);
+        assertTrue(databaseUrl(true).endsWith("routing_replica"));
+    }
+
+    @Test
+    void readWriteTransaction_whenRolledBack_thenUserNotPinned() {
+        readYourWrites.bind(4L);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+            assertFalse(readYourWrites.isCurrentUserPinned());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(databaseUrl(true).endsWith("routing_replica"));
+    }
+
+    @Test
+    void readsFromPrimary_whenReplicaConfigured_thenOnlyWritesAndPinnedUsersRoutedToPrimary() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        readYourWrites.bind(3L);
+
+        assertTrue(readOnlyRouting.readsFromPrimary());
+        assertEquals(Boolean.FALSE, transaction.execute(status -> readOnlyRouting.readsFromPrimary()));
+        databaseUrl(false);
+        assertEquals(Boolean.TRUE, transaction.execute(status -> readOnlyRouting.readsFromPrimary()));
+    }
+
+    @SneakyThrows
+    @Test
+    void filter_whenUserHeaderPresent_thenUserBoundDuringRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader("X-Sharer-User-Id", "7");
+        AtomicReference<Long> boundUser = new AtomicReference<>();
+        FilterChain chain = (req, res) -> boundUser.set(readYourWrites.currentUser());
+
+        new ReadYourWritesFilter(readYourWrites).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(7L, boundUser.get());
+        assertNull(readYourWrites.currentUser());
+    }
+
+    private String databaseUrl(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getURL()));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoReqCreate;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Реплика с той же схемой, но без данных: она отстает от основной базы на все изменения.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ryw_primary",
+        "shareit.datasource.replica.jdbc-url=" + ReadYourWritesTest.REPLICA_URL,
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test"
+})
+class ReadYourWritesTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:ryw_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ReadYourWrites readYourWrites;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "test", "test")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @AfterEach
+    void clear() {
+        readYourWrites.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getListBookings_whenBookerJustCreatedBooking_thenBookingReadFromPrimary() {
+        Item item = saveItem(saveUser("owner@mail.ru"));
+        User booker = saveUser("booker@mail.ru");
+        readYourWrites.bind(booker.getId());
+
+        BookingDto created = bookingService.addNewBooking(booker.getId(), bookingDto(item));
+        List<BookingDto> bookings = bookingService.getListBookings(booker.getId(), "ALL", 0, 10);
+
+        assertEquals(List.of(created.getId()), bookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void getListBookings_whenBookerDidNotWrite_thenLaggingReplicaRead() {
+        Item item = saveItem(saveUser("other-owner@mail.ru"));
+        User booker = saveUser("other-booker@mail.ru");
+        readYourWrites.bind(booker.getId());
+        bookingService.addNewBooking(booker.getId(), bookingDto(item));
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        readYourWrites.bind(item.getUser().getId());
+
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getListBookingsOwner(item.getUser().getId(), "ALL", 0, 10));
+    }
+
+    private BookingDtoReqCreate bookingDto(Item item) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookingDtoReqCreate(start, start.plusDays(1), item.getId());
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setName("Reader");
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .user(owner)
+                .build());
+    }
+}
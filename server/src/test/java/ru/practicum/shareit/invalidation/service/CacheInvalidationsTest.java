@@ -0,0 +1,77 @@
+package ru.practicum.shareit.invalidation.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.invalidation.model.CacheInvalidation;
+import ru.practicum.shareit.invalidation.model.InvalidationRegion;
+import ru.practicum.shareit.invalidation.repository.CacheInvalidationRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CacheInvalidationsTest {
+    @Autowired
+    private CacheInvalidations cacheInvalidations;
+    @Autowired
+    private CacheInvalidationRepository invalidationRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void clear() {
+        invalidationRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void poll_whenAnotherInstanceChangedUser_thenLocalEntriesEvicted() {
+        cacheManager.getCache(CacheConfig.USERS).put(1_000L, new UserSnapshot(1_000L, "old@mail.ru", "Old"));
+        cacheManager.getCache(CacheConfig.USER_EXISTS).put(1_000L, true);
+        invalidationRepository.save(new CacheInvalidation(InvalidationRegion.USER, 1_000L, LocalDateTime.now()));
+
+        cacheInvalidations.poll();
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get(1_000L));
+        assertNull(cacheManager.getCache(CacheConfig.USER_EXISTS).get(1_000L));
+    }
+
+    @Test
+    void poll_whenRecordOlderThanOverlap_thenIgnored() {
+        cacheManager.getCache(CacheConfig.ITEMS).put(2_000L, "cached");
+        invalidationRepository.save(new CacheInvalidation(InvalidationRegion.ITEM, 2_000L,
+                LocalDateTime.now().minusHours(2)));
+
+        cacheInvalidations.poll();
+
+        assertNotNull(cacheManager.getCache(CacheConfig.ITEMS).get(2_000L));
+    }
+
+    @Test
+    void patchUser_whenCommitted_thenChangePublished() {
+        UserDto user = new UserDto();
+        user.setName("Published");
+        user.setEmail("published@mail.ru");
+        Long userId = userService.addNewUser(user).getId();
+        UserDto patch = new UserDto();
+        patch.setName("Renamed");
+
+        userService.patchUser(userId, patch);
+        userService.deleteUserById(userId);
+
+        assertEquals(2, invalidationRepository.findAll().stream()
+                .filter(invalidation -> InvalidationRegion.USER.equals(invalidation.getRegion()))
+                .filter(invalidation -> userId.equals(invalidation.getEntityId()))
+                .count());
+    }
+}
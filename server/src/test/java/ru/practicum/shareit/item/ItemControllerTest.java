@@ -8,19 +8,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
 import ru.practicum.shareit.item.dto.ItemDtoReqPatch;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -80,6 +86,55 @@ class ItemControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(dto)));
     }
 
+    @SneakyThrows
+    @Test
+    void getById_whenIfNoneMatchEqualsEtag_thenStatusIsNotModified() {
+        long itemId = 1L;
+        long userId = 1L;
+        ItemDto dto = getItemDto();
+        dto.setId(itemId);
+        when(itemService.getByIdAndUserId(userId, itemId)).thenReturn(dto);
+
+        String etag = mockMvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void getById_whenCommentAdded_thenEtagChanged() {
+        long itemId = 1L;
+        long userId = 1L;
+        ItemDto dto = getItemDto();
+        dto.setId(itemId);
+        ItemDto commented = getItemDto();
+        commented.setId(itemId);
+        commented.setComments(List.of(new CommentDto(1L, "TestText", "TestAuthor",
+                LocalDateTime.of(2024, 1, 1, 12, 0))));
+        when(itemService.getByIdAndUserId(userId, itemId)).thenReturn(dto, commented);
+
+        String etag = mockMvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String changedEtag = mockMvc.perform(get("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(commented)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changedEtag);
+    }
+
     @SneakyThrows
     @Test
     void getByOwner() {
@@ -99,7 +154,7 @@ class ItemControllerTest {
         long userId = 1L;
         String text = "Test";
         List<ItemDto> dtoList = List.of(getItemDto());
-        when(itemService.searchItemsByText(userId, text)).thenReturn(dtoList);
+        when(itemService.searchItemsByText(userId, text, 0, 10)).thenReturn(dtoList);
 
         mockMvc.perform(get("/items/search")
                         .param("text", text)
@@ -124,6 +179,31 @@ class ItemControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(dto)));
     }
 
+    @SneakyThrows
+    @Test
+    void getAvailability_whenInvoked_thenReturnedAvailabilityDto() {
+        long itemId = 1L;
+        long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(2L);
+        ItemAvailabilityDto dto = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .available(true)
+                .nextFreeStart(start)
+                .nextFreeEnd(end)
+                .build();
+        when(itemService.getAvailability(userId, itemId, start, end)).thenReturn(dto);
+
+        mockMvc.perform(get("/items/{id}/availability", itemId)
+                        .param("start", start.toString())
+                        .param("end", end.toString())
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(dto)));
+    }
+
     ItemDtoReqCreate getCreateItemDto() {
         return ItemDtoReqCreate.builder()
                 .name("TestName")
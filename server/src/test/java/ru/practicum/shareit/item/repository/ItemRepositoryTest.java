@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -11,6 +13,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -20,6 +23,7 @@ class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private UserRepository userRepository;
+    private User owner;
 
     @BeforeEach
     void addTestItemsToDB() {
@@ -41,13 +45,14 @@ class ItemRepositoryTest {
         expectedItem.setAvailable(true);
         expectedItem.setUser(user);
         itemRepository.save(expectedItem);
+        owner = user;
     }
 
     @Test
     void search_whenItemFound_thenReturnListOfItems() {
         String text = "аккУМУляторная";
 
-        List<Item> actualItems = itemRepository.search(text);
+        List<Item> actualItems = itemRepository.search(text, PageRequest.of(0, 10));
 
         assertEquals(1, actualItems.size());
         assertEquals(actualItems.get(0).getName(), "Отвертка");
@@ -58,9 +63,17 @@ class ItemRepositoryTest {
     void search_whenItemNotFound_thenReturnEmptyList() {
         String text = "Ножницы";
 
-        List<Item> actualItems = itemRepository.search(text);
+        List<Item> actualItems = itemRepository.search(text, PageRequest.of(0, 10));
 
         assertTrue(actualItems.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void findViewsByUserId_whenItemsWithoutRequest_thenReturnViews() {
+        List<ItemView> views = itemRepository.findViewsByUserId(owner.getId());
+
+        assertEquals(2, views.size());
+        assertEquals("Дрель", views.get(0).getName());
+        assertNull(views.get(0).getRequestId());
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void enableIndex() {
+        ReflectionTestUtils.setField(itemSearchIndex, "enabled", true);
+    }
+
+    @Test
+    void search_whenItemsIndexed_thenReturnIdsContainingAllTrigrams() {
+        itemSearchIndex.index(getItem(1L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.index(getItem(2L, "Отвертка", "Аккумуляторная отвертка", true));
+        itemSearchIndex.index(getItem(3L, "Отвертка", "Крестовая", false));
+
+        assertArrayEquals(new long[]{2L}, itemSearchIndex.search("ОТВЕРТ", 0, 10));
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.search("дрель", 0, 10));
+        assertArrayEquals(new long[0], itemSearchIndex.search("ножницы", 0, 10));
+    }
+
+    @Test
+    void search_whenTrigramsMatchButSubstringDoesNot_thenNotReturned() {
+        itemSearchIndex.index(getItem(1L, "Отвертка", "Аккумуляторная отвертка", true));
+        itemSearchIndex.index(getItem(2L, "Набор", "отве ртк", true));
+        itemSearchIndex.index(getItem(3L, "Ключ", "тк отве", true));
+
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.search("отвертк", 0, 10));
+    }
+
+    @Test
+    void search_whenOffsetGiven_thenMatchesSkipped() {
+        for (long id = 1; id <= 10; id++) {
+            itemSearchIndex.index(getItem(id, "Пила", "Пила " + id, true));
+        }
+
+        assertArrayEquals(new long[]{4L, 5L, 6L}, itemSearchIndex.search("пила", 3, 3));
+        assertArrayEquals(new long[]{10L}, itemSearchIndex.search("пила", 9, 3));
+        assertArrayEquals(new long[0], itemSearchIndex.search("пила", 10, 3));
+    }
+
+    @Test
+    void index_whenItemBecameUnavailable_thenRemoved() {
+        itemSearchIndex.index(getItem(1L, "Дрель", "Простая дрель", true));
+
+        itemSearchIndex.index(getItem(1L, "Дрель", "Простая дрель", false));
+
+        assertArrayEquals(new long[0], itemSearchIndex.search("дрель", 0, 10));
+    }
+
+    @Test
+    void index_whenTextChanged_thenOldTextNotFound() {
+        itemSearchIndex.index(getItem(1L, "Дрель", "Простая дрель", true));
+
+        itemSearchIndex.index(getItem(1L, "Перфоратор", "Мощный", true));
+
+        assertArrayEquals(new long[0], itemSearchIndex.search("дрель", 0, 10));
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.search("перфо", 0, 10));
+    }
+
+    @Test
+    void remove_whenItemRemoved_thenNotFound() {
+        Item item = getItem(1L, "Дрель", "Простая дрель", true);
+        itemSearchIndex.index(item);
+
+        itemSearchIndex.remove(item.getId());
+
+        assertArrayEquals(new long[0], itemSearchIndex.search("дрель", 0, 10));
+    }
+
+    @Test
+    void search_whenManyItemsIndexed_thenIdsReturnedInOrder() {
+        long count = 70_000L;
+        for (long id = count; id >= 1; id--) {
+            itemSearchIndex.index(getItem(id, "Молоток", "Молоток " + id, true));
+        }
+        itemSearchIndex.remove(5L);
+
+        long[] ids = itemSearchIndex.search("молот", 0, (int) count);
+
+        assertEquals(count - 1, ids.length);
+        assertEquals(1L, ids[0]);
+        assertEquals(6L, ids[4]);
+        assertEquals(count, ids[ids.length - 1]);
+    }
+
+    @Test
+    void rebuild_whenInvoked_thenIndexLoadedFromRepository() {
+        ItemSearchView view = new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return 7L;
+            }
+
+            @Override
+            public String getName() {
+                return "Пила";
+            }
+
+            @Override
+            public String getDescription() {
+                return "Ручная пила";
+            }
+        };
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(view));
+
+        itemSearchIndex.rebuild();
+
+        assertArrayEquals(new long[]{7L}, itemSearchIndex.search("ручн", 0, 10));
+    }
+
+    @Test
+    void rebuild_whenItemsChangedDuringRebuild_thenOldIndexServedAndChangesKept() {
+        itemSearchIndex.index(getItem(1L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.index(getItem(2L, "Пила", "Ручная пила", true));
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    assertArrayEquals(new long[]{1L}, itemSearchIndex.search("дрель", 0, 10));
+                    itemSearchIndex.index(getItem(3L, "Дрель", "Ударная дрель", true));
+                    itemSearchIndex.remove(2L);
+                    return List.of(getView(1L, "Дрель", "Простая дрель"), getView(2L, "Пила", "Ручная пила"));
+                });
+
+        itemSearchIndex.rebuild();
+
+        assertArrayEquals(new long[]{1L, 3L}, itemSearchIndex.search("дрель", 0, 10));
+        assertArrayEquals(new long[0], itemSearchIndex.search("пила", 0, 10));
+    }
+
+    @Test
+    void matches_whenSubstringPresent_thenTrue() {
+        Item item = getItem(1L, "Дрель", "Простая дрель", true);
+
+        assertTrue(ItemSearchIndex.matches(item, "ПРОСТАЯ"));
+        assertFalse(ItemSearchIndex.matches(item, "сложная"));
+    }
+
+    private ItemSearchView getView(Long id, String name, String description) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+
+    private Item getItem(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
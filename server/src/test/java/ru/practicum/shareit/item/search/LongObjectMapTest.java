@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+
+    @Test
+    void putAndRemove_whenManyKeysCollide_thenSameAsHashMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void computeIfAbsent_whenKeyPresent_thenExistingValueReturned() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(7L, "первое");
+
+        assertEquals("первое", map.computeIfAbsent(7L, key -> "второе"));
+        assertEquals("второе", map.computeIfAbsent(8L, key -> "второе"));
+        assertEquals(2, map.size());
+    }
+}
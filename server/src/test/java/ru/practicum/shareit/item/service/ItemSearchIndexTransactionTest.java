@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Индекс в памяти меняется только после фиксации транзакции сервиса.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search_index_tx",
+        "shareit.search.in-memory=true"
+})
+class ItemSearchIndexTransactionTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void saveOwner() {
+        User user = new User();
+        user.setName("Owner");
+        user.setEmail("owner" + System.nanoTime() + "@mail.ru");
+        owner = userRepository.save(user);
+    }
+
+    @Test
+    void addNewItem_whenTransactionRolledBack_thenItemNotIndexed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.addNewItem(owner.getId(), itemDto("Перфоратор"));
+            status.setRollbackOnly();
+        });
+
+        assertArrayEquals(new long[0], itemSearchIndex.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    void addNewItem_whenTransactionCommitted_thenItemIndexed() {
+        ItemDto item = itemService.addNewItem(owner.getId(), itemDto("Болгарка"));
+
+        assertArrayEquals(new long[]{item.getId()}, itemSearchIndex.search("болгарка", 0, 10));
+    }
+
+    @Test
+    void deleteItem_whenTransactionRolledBack_thenItemStaysIndexed() {
+        ItemDto item = itemService.addNewItem(owner.getId(), itemDto("Стремянка"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.deleteItem(owner.getId(), item.getId());
+            status.setRollbackOnly();
+        });
+
+        assertArrayEquals(new long[]{item.getId()}, itemSearchIndex.search("стремянка", 0, 10));
+    }
+
+    private ItemDtoReqCreate itemDto(String name) {
+        return ItemDtoReqCreate.builder()
+                .name(name)
+                .description(name + " для ремонта")
+                .available(true)
+                .build();
+    }
+}
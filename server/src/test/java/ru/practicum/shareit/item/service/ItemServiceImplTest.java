@@ -4,28 +4,39 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
 import ru.practicum.shareit.booking.dto.BookingInItemDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.StatusBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoReqCreate;
 import ru.practicum.shareit.item.dto.ItemDtoReqPatch;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.dto.ItemWithBookingsView;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -44,17 +55,27 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserGuard userGuard;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private RequestRepository itemRequestRepository;
     @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private BookingAvailability bookingAvailability;
+    @Mock
+    private ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    @Mock
     private ItemMapper itemMapper;
     @Mock
     private BookingMapper bookingMapper;
     @Mock
     private CommentMapper commentMapper;
+    @Mock
+    private CacheInvalidations cacheInvalidations;
     @Captor
     private ArgumentCaptor<Comment> commentArgumentCaptor;
 
@@ -74,6 +95,7 @@ class ItemServiceImplTest {
 
         assertEquals(expectedItemDto, actualItemDto);
         verify(itemRepository).save(itemToSave);
+        verify(itemBookingSummaryUpdater).create(itemToSave.getId());
     }
 
     @Test
@@ -185,14 +207,10 @@ class ItemServiceImplTest {
     void getByIdAndUserId_whenItemFoundAndNotOwner_thenReturnedItemWithoutBookings() {
         Long userId = 0L;
         Long itemId = 1L;
-        Item foundedItem = getTestItem();
-        foundedItem.setId(1L);
-        User owner = getTestUser();
-        foundedItem.setUser(owner);
+        ItemSnapshot foundedItem = getItemSnapshot(getTestUser().getId());
         ItemDto expectedItemDto = getItemDto();
         expectedItemDto.setId(1L);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(foundedItem));
+        when(itemRepository.findSnapshotById(itemId)).thenReturn(Optional.of(foundedItem));
         when(itemMapper.toItemDto(foundedItem)).thenReturn(expectedItemDto);
         setupComments();
 
@@ -207,15 +225,11 @@ class ItemServiceImplTest {
     void getByIdAndUserId_whenItemFoundAndOwner_thenReturnedItemWithoutBookings() {
         Long userId = 1L;
         Long itemId = 1L;
-        Item foundedItem = getTestItem();
-        foundedItem.setId(1L);
-        User owner = getTestUser();
-        foundedItem.setUser(owner);
+        ItemSnapshot foundedItem = getItemSnapshot(userId);
         ItemDto expectedItemDto = getItemDto();
         expectedItemDto.setId(1L);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(foundedItem));
+        when(itemRepository.findSnapshotById(itemId)).thenReturn(Optional.of(foundedItem));
         when(itemMapper.toItemDto(foundedItem)).thenReturn(expectedItemDto);
         setupComments();
         setupBookings();
@@ -231,8 +245,7 @@ class ItemServiceImplTest {
     void getByIdAndUserId_whenItemNotFoundAndOwner_thenNotFoundExceptionThrown() {
         Long userId = 1L;
         Long itemId = 0L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(getTestUser()));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemRepository.findSnapshotById(itemId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> itemService.getByIdAndUserId(userId, itemId));
@@ -241,66 +254,79 @@ class ItemServiceImplTest {
     @Test
     void getItemsByOwner_withoutBookingsAndComments_thenReturnListOfItemDtos() {
         Long ownerId = 1L;
-        Item item = getTestItem();
-        item.setId(1L);
         ItemDto itemDto = getItemDto();
         itemDto.setId(1L);
-        List<Item> items = List.of(item);
+        ItemWithBookingsView item = getItemWithBookingsView();
         List<ItemDto> expectedItemDtos = List.of(itemDto);
-        when(itemRepository.findAllByUserIdOrderByIdAsc(ownerId)).thenReturn(items);
-        when(itemMapper.toItemDtoList(items)).thenReturn(expectedItemDtos);
+        when(itemRepository.findViewsWithBookingsByUserId(ownerId)).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(item)).thenReturn(itemDto);
 
         List<ItemDto> actualItemDtos = itemService.getItemsByOwner(ownerId);
 
         assertEquals(expectedItemDtos, actualItemDtos);
+        verify(bookingRepository, never()).findLastAndNextByItemIds(anyList(), any(LocalDateTime.class));
     }
 
     @Test
     void getItemsByOwner_withBookingsAndComments_thenReturnListOfItemDtos() {
         Long ownerId = 1L;
-        Item item = getTestItem();
-        item.setId(1L);
         ItemDto itemDto = getItemDto();
         itemDto.setId(1L);
-        List<Item> items = List.of(item);
-        List<ItemDto> expectedItemDtos = List.of(itemDto);
-        Comment comment = getTestComment();
-        comment.setItem(item);
-        comment.setId(1L);
+        ItemWithBookingsView item = getItemWithBookingsView();
+        when(item.getLastBookingId()).thenReturn(1L);
+        when(item.getNextBookingId()).thenReturn(2L);
+        when(item.getNextStart()).thenReturn(LocalDateTime.now().plusDays(1));
+        when(item.getNextStatus()).thenReturn(StatusBooking.APPROVED);
+        CommentView comment = mock(CommentView.class);
+        when(comment.getItemId()).thenReturn(1L);
         CommentDto commentDto = getCommentDto();
         commentDto.setId(1L);
         List<CommentDto> commentDtos = List.of(commentDto);
-        expectedItemDtos.get(0).setComments(commentDtos);
-
-        Booking lastBooking = new Booking();
-        lastBooking.setId(1L);
-        lastBooking.setItem(item);
-        lastBooking.setStatus(StatusBooking.APPROVED);
-        Booking nextBooking = new Booking();
-        nextBooking.setId(2L);
-        nextBooking.setItem(item);
-        nextBooking.setStatus(StatusBooking.APPROVED);
         BookingInItemDto lastBookingInItemDto = new BookingInItemDto();
         lastBookingInItemDto.setId(1L);
         BookingInItemDto nextBookingInItemDto = new BookingInItemDto();
         nextBookingInItemDto.setId(2L);
-        expectedItemDtos.get(0).setLastBooking(lastBookingInItemDto);
-        expectedItemDtos.get(0).setNextBooking(nextBookingInItemDto);
-        when(itemRepository.findAllByUserIdOrderByIdAsc(ownerId)).thenReturn(items);
-        when(itemMapper.toItemDtoList(items)).thenReturn(expectedItemDtos);
-        when(commentRepository.findByItemIn(eq(items), any(Sort.class))).thenReturn(List.of(comment));
-        when(commentMapper.toDtoList(anyList())).thenReturn(commentDtos);
-        when(bookingRepository.findByItemInAndStartLessThanEqual(
-                eq(items), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(List.of(lastBooking));
-        when(bookingRepository.findByItemInAndStartAfter(eq(items), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(List.of(nextBooking));
+        when(itemRepository.findViewsWithBookingsByUserId(ownerId)).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(item)).thenReturn(itemDto);
+        when(commentRepository.findViewsByItemIdIn(List.of(1L))).thenReturn(List.of(comment));
+        when(commentMapper.viewsToDtoList(anyList())).thenReturn(commentDtos);
+        when(bookingMapper.toLastBookingInItemDto(item)).thenReturn(lastBookingInItemDto);
+        when(bookingMapper.toNextBookingInItemDto(item)).thenReturn(nextBookingInItemDto);
+
+        List<ItemDto> actualItemDtos = itemService.getItemsByOwner(ownerId);
+
+        assertEquals(1, actualItemDtos.size());
+        assertEquals(lastBookingInItemDto, actualItemDtos.get(0).getLastBooking());
+        assertEquals(nextBookingInItemDto, actualItemDtos.get(0).getNextBooking());
+        assertEquals(commentDtos, actualItemDtos.get(0).getComments());
+        verify(bookingRepository, never()).findLastAndNextByItemIds(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getItemsByOwner_whenNextBookingStartedBeforeRefresh_thenBookingsReadFromBookingTable() {
+        Long ownerId = 1L;
+        ItemDto itemDto = getItemDto();
+        itemDto.setId(1L);
+        ItemWithBookingsView item = getItemWithBookingsView();
+        when(item.getNextStart()).thenReturn(LocalDateTime.now().minusMinutes(1));
+        ItemBookingView lastBooking = getBookingView(ItemBookingView.LAST);
+        ItemBookingView nextBooking = getBookingView(ItemBookingView.NEXT);
+        BookingInItemDto lastBookingInItemDto = new BookingInItemDto();
+        lastBookingInItemDto.setId(1L);
+        BookingInItemDto nextBookingInItemDto = new BookingInItemDto();
+        nextBookingInItemDto.setId(2L);
+        when(itemRepository.findViewsWithBookingsByUserId(ownerId)).thenReturn(List.of(item));
+        when(itemMapper.toItemDto(item)).thenReturn(itemDto);
+        when(bookingRepository.findLastAndNextByItemIds(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking, nextBooking));
         when(bookingMapper.toBookingInItemDto(lastBooking)).thenReturn(lastBookingInItemDto);
         when(bookingMapper.toBookingInItemDto(nextBooking)).thenReturn(nextBookingInItemDto);
 
         List<ItemDto> actualItemDtos = itemService.getItemsByOwner(ownerId);
 
-        assertEquals(expectedItemDtos, actualItemDtos);
+        assertEquals(lastBookingInItemDto, actualItemDtos.get(0).getLastBooking());
+        assertEquals(nextBookingInItemDto, actualItemDtos.get(0).getNextBooking());
+        verify(bookingMapper, never()).toLastBookingInItemDto(any());
     }
 
     @Test
@@ -308,19 +334,55 @@ class ItemServiceImplTest {
         List<Item> foundedItems = List.of(getTestItem());
         List<ItemDto> expectedItemDtos = List.of(getItemDto());
         String text = "Test";
-        when(itemRepository.search(text)).thenReturn(foundedItems);
+        when(itemRepository.search(eq(text), any(PageRequest.class))).thenReturn(foundedItems);
+        when(itemMapper.toItemDtoList(foundedItems)).thenReturn(expectedItemDtos);
+
+        List<ItemDto> actualItemDtos = itemService.searchItemsByText(1L, text, 0, 10);
+
+        assertEquals(expectedItemDtos, actualItemDtos);
+    }
+
+    @Test
+    void searchItemsByText_whenFullTextEnabled_thenFullTextQueryUsed() {
+        List<Item> foundedItems = List.of(getTestItem());
+        List<ItemDto> expectedItemDtos = List.of(getItemDto());
+        String text = "Test";
+        ReflectionTestUtils.setField(itemService, "fullTextSearch", true);
+        when(itemRepository.searchFullText(text, PageRequest.of(1, 5))).thenReturn(foundedItems);
         when(itemMapper.toItemDtoList(foundedItems)).thenReturn(expectedItemDtos);
 
-        List<ItemDto> actualItemDtos = itemService.searchItemsByText(1L, text);
+        List<ItemDto> actualItemDtos = itemService.searchItemsByText(1L, text, 5, 5);
 
         assertEquals(expectedItemDtos, actualItemDtos);
+        verify(itemRepository, never()).search(anyString(), any(PageRequest.class));
+    }
+
+    @Test
+    void searchItemsByText_whenIndexEnabled_thenPageLoadedByIdsAndVerified() {
+        String text = "отвертк";
+        Item changed = getTestItem();
+        changed.setId(2L);
+        changed.setDescription("отве ртк");
+        Item found = getTestItem();
+        found.setId(3L);
+        found.setName("Отвертка");
+        List<ItemDto> expectedItemDtos = List.of(getItemDto());
+        when(itemSearchIndex.supports(text)).thenReturn(true);
+        when(itemSearchIndex.search(text, 2, 2)).thenReturn(new long[]{2L, 3L});
+        when(itemRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(found, changed));
+        when(itemMapper.toItemDtoList(List.of(found))).thenReturn(expectedItemDtos);
+
+        List<ItemDto> actualItemDtos = itemService.searchItemsByText(1L, text, 3, 2);
+
+        assertEquals(expectedItemDtos, actualItemDtos);
+        verify(itemRepository, never()).search(anyString(), any(PageRequest.class));
     }
 
     @Test
     void searchItemsByText_whenSearchTextIsBlank_thenReturnEmptyList() {
         String text = "";
 
-        List<ItemDto> actualItemDtos = itemService.searchItemsByText(1L, text);
+        List<ItemDto> actualItemDtos = itemService.searchItemsByText(1L, text, 0, 10);
 
         assertEquals(0, actualItemDtos.size());
     }
@@ -402,6 +464,33 @@ class ItemServiceImplTest {
         verify(commentRepository, never()).save(Mockito.any());
     }
 
+    @Test
+    void getAvailability_whenIntervalBooked_thenNextFreeSlotReturned() {
+        Long itemId = 1L;
+        Long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(2L);
+        LocalDateTime nextFreeStart = start.plusHours(5L);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingAvailability.isBooked(itemId, start, end)).thenReturn(true);
+        when(bookingAvailability.nextFreeStart(itemId, start, end)).thenReturn(nextFreeStart);
+
+        ItemAvailabilityDto actualDto = itemService.getAvailability(userId, itemId, start, end);
+
+        assertFalse(actualDto.getAvailable());
+        assertEquals(nextFreeStart, actualDto.getNextFreeStart());
+        assertEquals(nextFreeStart.plusHours(2L), actualDto.getNextFreeEnd());
+    }
+
+    @Test
+    void getAvailability_whenStartNotBeforeEnd_thenValidationExceptionThrown() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getAvailability(1L, 1L, start, start));
+        verify(bookingAvailability, never()).isBooked(anyLong(), any(), any());
+    }
+
     User getTestUser() {
         User newUser = new User();
         newUser.setId(1L);
@@ -410,6 +499,22 @@ class ItemServiceImplTest {
         return newUser;
     }
 
+    ItemBookingView getBookingView(String kind) {
+        ItemBookingView view = mock(ItemBookingView.class);
+        when(view.getItemId()).thenReturn(1L);
+        when(view.getKind()).thenReturn(kind);
+        if (ItemBookingView.NEXT.equals(kind)) {
+            when(view.getStatus()).thenReturn(StatusBooking.APPROVED);
+        }
+        return view;
+    }
+
+    ItemWithBookingsView getItemWithBookingsView() {
+        ItemWithBookingsView view = mock(ItemWithBookingsView.class);
+        when(view.getId()).thenReturn(1L);
+        return view;
+    }
+
     Item getTestItem() {
         return Item.builder()
                 .name("TestName")
@@ -418,6 +523,10 @@ class ItemServiceImplTest {
                 .build();
     }
 
+    ItemSnapshot getItemSnapshot(Long ownerId) {
+        return new ItemSnapshot(1L, "TestName", "TestDescription", Boolean.TRUE, ownerId, null);
+    }
+
     ItemDtoReqCreate getCreateItemDto() {
         return ItemDtoReqCreate.builder()
                 .name("TestName")
@@ -473,20 +582,18 @@ class ItemServiceImplTest {
     }
 
     void setupBookings() {
-        Booking lastBooking = new Booking();
-        Booking nextBooking = new Booking();
-        lastBooking.setStatus(StatusBooking.APPROVED);
-        nextBooking.setStatus(StatusBooking.APPROVED);
+        ItemWithBookingsView view = mock(ItemWithBookingsView.class);
+        when(view.getLastBookingId()).thenReturn(1L);
+        when(view.getNextBookingId()).thenReturn(2L);
+        when(view.getNextStart()).thenReturn(LocalDateTime.now().plusDays(1));
+        when(view.getNextStatus()).thenReturn(StatusBooking.APPROVED);
         BookingInItemDto lastBookingInItemDto = new BookingInItemDto();
         lastBookingInItemDto.setId(1L);
         BookingInItemDto nextBookingInItemDto = new BookingInItemDto();
         nextBookingInItemDto.setId(2L);
-        when(bookingRepository.findFirstByItemIdAndStartLessThanEqual(
-                anyLong(), any(LocalDateTime.class), any(Sort.class))).thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItemIdAndStartAfter(
-                anyLong(), any(LocalDateTime.class), any(Sort.class))).thenReturn(nextBooking);
-        when(bookingMapper.toBookingInItemDto(lastBooking)).thenReturn(lastBookingInItemDto);
-        when(bookingMapper.toBookingInItemDto(nextBooking)).thenReturn(nextBookingInItemDto);
+        when(itemRepository.findViewWithBookingsById(anyLong())).thenReturn(Optional.of(view));
+        when(bookingMapper.toLastBookingInItemDto(view)).thenReturn(lastBookingInItemDto);
+        when(bookingMapper.toNextBookingInItemDto(view)).thenReturn(nextBookingInItemDto);
     }
 
     void setupComments() {
@@ -6,8 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoCreate;
 import ru.practicum.shareit.request.service.RequestService;
@@ -15,11 +17,14 @@ import ru.practicum.shareit.request.service.RequestService;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = RequestController.class)
@@ -63,6 +68,56 @@ class RequestControllerTest {
         verify(requestService).getRequestById(userId, requestId);
     }
 
+    @SneakyThrows
+    @Test
+    void getById_whenIfNoneMatchEqualsEtag_thenStatusIsNotModified() {
+        long userId = 1L;
+        long requestId = 1L;
+        when(requestService.getRequestById(userId, requestId)).thenReturn(getRequestDto());
+
+        String etag = mockMvc.perform(get("/requests/{id}", requestId)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/requests/{id}", requestId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void getById_whenItemAnswered_thenEtagChanged() {
+        long userId = 1L;
+        long requestId = 1L;
+        RequestDto dto = getRequestDto();
+        RequestDto answered = getRequestDto();
+        answered.setItems(List.of(ItemDto.builder()
+                .id(1L)
+                .name("TestName")
+                .description("TestDescription")
+                .available(Boolean.TRUE)
+                .requestId(requestId)
+                .build()));
+        when(requestService.getRequestById(userId, requestId)).thenReturn(dto, answered);
+
+        String etag = mockMvc.perform(get("/requests/{id}", requestId)
+                        .header("X-Sharer-User-Id", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String changedEtag = mockMvc.perform(get("/requests/{id}", requestId)
+                        .header("X-Sharer-User-Id", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(answered)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changedEtag);
+    }
+
     @SneakyThrows
     @Test
     void getRequests_whenRequestsFound_thenReturnedListOfRequestDtos() {
@@ -99,7 +154,7 @@ class RequestControllerTest {
         RequestDto dto = new RequestDto();
         dto.setId(1L);
         dto.setDescription("TestDescription");
-        dto.setCreated(LocalDateTime.now());
+        dto.setCreated(LocalDateTime.of(2024, 1, 1, 12, 0));
         return dto;
     }
 }
\ No newline at end of file
@@ -12,16 +12,19 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestDtoCreate;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserGuard;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -43,6 +46,8 @@ class RequestServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserGuard userGuard;
 
     @Spy
     @InjectMocks
@@ -94,7 +99,6 @@ class RequestServiceImplTest {
         Request foundedRequest = getRequest();
         RequestDto expectedDto = requestMapper.toRequestDto(foundedRequest);
         expectedDto.setItems(Collections.emptyList());
-        when(userRepository.findById(userId)).thenReturn(Optional.of(foundedUser));
         when(requestRepository.findById(itemRequestId)).thenReturn(Optional.of(foundedRequest));
         when(itemRepository.findAllByRequestId(itemRequestId)).thenReturn(Collections.emptyList());
 
@@ -117,13 +121,12 @@ class RequestServiceImplTest {
     @Test
     void getRequests_whenInvoked_thenReturnListOfOwnItemRequestDtos() {
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(getUser()));
-        List<Request> foundedRequests = List.of(getRequest());
-        List<Item> items = List.of(getTestItem());
-        List<RequestDto> expectedDtos = requestMapper.toRequestDtoList(foundedRequests);
-        expectedDtos.get(0).setItems(itemMapper.toItemDtoList(items));
-        when(requestRepository.findByRequesterIdOrderByCreatedDesc(userId)).thenReturn(foundedRequests);
-        when(itemRepository.findByRequestIn(foundedRequests)).thenReturn(items);
+        List<RequestView> foundedRequests = List.of(getRequestView());
+        List<ItemView> items = List.of(getItemView());
+        List<RequestDto> expectedDtos = requestMapper.viewsToRequestDtoList(foundedRequests);
+        expectedDtos.get(0).setItems(itemMapper.viewsToItemDtoList(items));
+        when(requestRepository.findViewsByRequesterIdOrderByCreatedDesc(userId)).thenReturn(foundedRequests);
+        when(itemRepository.findViewsByRequestIdIn(List.of(1L))).thenReturn(items);
 
         List<RequestDto> actualDtos = requestService.getRequests(userId);
 
@@ -135,15 +138,14 @@ class RequestServiceImplTest {
         Long userId = 1L;
         Integer from = 0;
         Integer size = 10;
-        List<Request> foundedItemRequests = List.of(getRequest());
-        List<Item> items = List.of(getTestItem());
+        List<RequestView> foundedItemRequests = List.of(getRequestView());
+        List<ItemView> items = List.of(getItemView());
         PageRequest pageRequest = PageRequest.of((from / size), size, Sort.by("created").descending());
-        Page<Request> page = new PageImpl<>(foundedItemRequests);
-        List<RequestDto> expectedDtos = requestMapper.toRequestDtoList(foundedItemRequests);
-        expectedDtos.get(0).setItems(itemMapper.toItemDtoList(items));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(getUser()));
-        when(requestRepository.findByRequesterIdIsNot(userId, pageRequest)).thenReturn(page);
-        when(itemRepository.findByRequestIn(foundedItemRequests)).thenReturn(items);
+        Page<RequestView> page = new PageImpl<>(foundedItemRequests);
+        List<RequestDto> expectedDtos = requestMapper.viewsToRequestDtoList(foundedItemRequests);
+        expectedDtos.get(0).setItems(itemMapper.viewsToItemDtoList(items));
+        when(requestRepository.findViewsByRequesterIdIsNot(userId, pageRequest)).thenReturn(page);
+        when(itemRepository.findViewsByRequestIdIn(List.of(1L))).thenReturn(items);
 
         List<RequestDto> actualDtos = requestService.getAllRequests(userId, from, size);
 
@@ -165,6 +167,56 @@ class RequestServiceImplTest {
         return request;
     }
 
+    RequestView getRequestView() {
+        Request request = getRequest();
+        return new RequestView() {
+            @Override
+            public Long getId() {
+                return request.getId();
+            }
+
+            @Override
+            public String getDescription() {
+                return request.getDescription();
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return request.getCreated();
+            }
+        };
+    }
+
+    ItemView getItemView() {
+        Item item = getTestItem();
+        return new ItemView() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return item.getAvailable();
+            }
+
+            @Override
+            public Long getRequestId() {
+                return item.getRequest().getId();
+            }
+        };
+    }
+
     Item getTestItem() {
         return Item.builder()
                 .id(1L)
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,9 +16,12 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -74,6 +78,43 @@ class UserControllerTest {
         verify(userService).getUserById(userId);
     }
 
+    @SneakyThrows
+    @Test
+    void getUserById_whenIfNoneMatchEqualsEtag_thenStatusIsNotModified() {
+        long userId = 1L;
+        when(userService.getUserById(userId)).thenReturn(getTestUserDto());
+
+        String etag = mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserById_whenUserChanged_thenEtagChanged() {
+        long userId = 1L;
+        UserDto changed = getTestUserDto();
+        changed.setName("Changed");
+        when(userService.getUserById(userId)).thenReturn(getTestUserDto(), changed);
+
+        String etag = mockMvc.perform(get("/users/{userId}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String changedEtag = mockMvc.perform(get("/users/{userId}", userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(changed)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changedEtag);
+    }
+
     @SneakyThrows
     @Test
     void getAllUsers_whenUsersFound_thenReturnedListOfUsersDto() {
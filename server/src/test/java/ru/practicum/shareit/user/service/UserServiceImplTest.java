@@ -8,7 +8,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.invalidation.service.CacheInvalidations;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -30,6 +32,8 @@ class UserServiceImplTest {
     private UserMapper userMapper;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private CacheInvalidations cacheInvalidations;
 
     @Captor
     private ArgumentCaptor<User> userArgumentCaptor;
@@ -76,9 +80,9 @@ class UserServiceImplTest {
     @Test
     void getUserById_whenUserFound_ThenReturnedUser() {
         Long userId = 1L;
-        User expectedUser = getTestUser();
+        UserSnapshot expectedUser = new UserSnapshot(userId, "TestEmail", "TestName");
         UserDto expectedUserDto = getTestUserDto();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(expectedUser));
+        when(userRepository.findSnapshotById(userId)).thenReturn(Optional.of(expectedUser));
         when(userMapper.toUserDto(expectedUser)).thenReturn(expectedUserDto);
 
         UserDto actualUserDto = userService.getUserById(userId);
@@ -89,7 +93,7 @@ class UserServiceImplTest {
     @Test
     void getUserById_whenUserNotFound_thenNotFoundExceptionThrown() {
         Long userId = 0L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findSnapshotById(userId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> userService.getUserById(userId));